@@ -1,6 +1,8 @@
 package knapsack;
 
 import java.lang.Math;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Solver for binary knapsack problems
@@ -12,7 +14,7 @@ public class BinarySolver implements SolverInterface<Solution> {
     // (current) optimal solution
     private Solution optimal;
     // number of already computed solutions
-    private int count;
+    private long count;
     // number of elements
     private int max;
 
@@ -45,6 +47,14 @@ public class BinarySolver implements SolverInterface<Solution> {
         // to solve the problem 
         useLoop(new Solution(instance));
 
+        // Call this method to walk all solutions in Gray-code order
+        // (does not print every solution, works for up to 62 items)
+        //useGrayCode(instance);
+
+        // Call this method to split the Gray-code enumeration
+        // over all available cores
+        //useParallel(instance);
+
         Logger.println();
         Logger.disable();
 
@@ -73,6 +83,106 @@ public class BinarySolver implements SolverInterface<Solution> {
         loopSolve(sol, (int) Math.pow(2.0, max));
     }
 
+    /**
+     * Computes all possible solutions for the given instance
+     * by walking them in Gray-code order, so that two consecutive
+     * solutions differ in exactly one item
+     *
+     * @param instance The given binary knapsack instance
+     */
+    public void useGrayCode(Instance instance) {
+        if (max > 62) {
+            throw new IllegalArgumentException("Gray-code enumeration supports at most 62 items");
+        }
+
+        long start = System.nanoTime();
+        Incumbent best = grayCodeSolve(instance.getValueArray(), instance.getWeightArray(),
+                instance.getCapacity(), max, 0L, 0L, 0L);
+        long time = System.nanoTime() - start;
+
+        long assignments = 1L << max;
+        count += assignments;
+        Logger.println("Assignments: " + assignments + ", " + String.format("%.0f", assignments / (time / 1e9)) + " per second");
+
+        if (best.value > optimal.getValue()) {
+            optimal = best.toSolution(instance);
+        }
+    }
+
+    /**
+     * Computes all possible solutions for the given instance in parallel.
+     * The highest items are fixed to split the assignments into
+     * independent parts, each of which is enumerated in Gray-code order
+     * by a fork/join task.
+     *
+     * @param instance The given binary knapsack instance
+     */
+    public void useParallel(Instance instance) {
+        if (max > 62) {
+            throw new IllegalArgumentException("Gray-code enumeration supports at most 62 items");
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // Create a few tasks per core so that work stealing can balance them
+        int depth = 64 - Long.numberOfLeadingZeros(pool.getParallelism() * 16L - 1);
+
+        long start = System.nanoTime();
+        Incumbent best = pool.invoke(new EnumerationTask(instance.getValueArray(), instance.getWeightArray(),
+                instance.getCapacity(), max, Math.min(depth, max), 0L, 0L, 0L));
+        long time = System.nanoTime() - start;
+
+        long assignments = 1L << max;
+        count += assignments;
+        Logger.println("Assignments: " + assignments + ", " + String.format("%.0f", assignments / (time / 1e9)) + " per second"
+                + " (" + pool.getParallelism() + " threads)");
+
+        if (best.value > optimal.getValue()) {
+            optimal = best.toSolution(instance);
+        }
+    }
+
+    /**
+     * Walks all 2^free assignments of the items 0..free-1 in Gray-code
+     * order, starting from the given assignment of the remaining items.
+     * Only one item is flipped per step, so value and weight are updated
+     * in constant time.
+     *
+     * @param c Item values
+     * @param w Item weights
+     * @param capacity Knapsack capacity
+     * @param free Number of items to enumerate (the lowest indices)
+     * @param mask Assignment of the fixed items
+     * @param value Value of the fixed items
+     * @param weight Weight of the fixed items
+     * @return The best feasible assignment found
+     */
+    static Incumbent grayCodeSolve(int[] c, int[] w, int capacity, int free, long mask, long value, long weight) {
+        Incumbent best = new Incumbent();
+        if (weight <= capacity) {
+            best.update(value, mask);
+        }
+
+        long limit = 1L << free;
+        for (long i = 1; i < limit; i++) {
+            // The item to flip is the lowest set bit of the counter
+            int item = Long.numberOfTrailingZeros(i);
+            long bit = 1L << item;
+            mask ^= bit;
+            if ((mask & bit) != 0) {
+                value += c[item];
+                weight += w[item];
+            } else {
+                value -= c[item];
+                weight -= w[item];
+            }
+            if (weight <= capacity && value > best.value) {
+                best.update(value, mask);
+            }
+        }
+
+        return best;
+    }
+
     private void loopSolve(Solution sol, int limit) {
         // Check all 2^n (n = max) possible combinations
         for (int i = 0; i < limit; i++) {
@@ -111,4 +221,69 @@ public class BinarySolver implements SolverInterface<Solution> {
         sol.set(index+1, 1);
         recursiveSolve(index+1, new Solution(sol));
     }
+
+    /**
+     * Fork/join task that fixes the highest free item to 0 and 1
+     * until the split depth is reached, then enumerates the rest
+     */
+    private static class EnumerationTask extends RecursiveTask<Incumbent> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] c, w;
+        private final int capacity, free, split;
+        private final long mask, value, weight;
+
+        EnumerationTask(int[] c, int[] w, int capacity, int free, int split, long mask, long value, long weight) {
+            this.c = c;
+            this.w = w;
+            this.capacity = capacity;
+            this.free = free;
+            this.split = split;
+            this.mask = mask;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        @Override
+        protected Incumbent compute() {
+            // Weights are not negative, so no completion can be feasible
+            if (weight > capacity) {
+                return new Incumbent();
+            }
+            if (split == 0) {
+                return grayCodeSolve(c, w, capacity, free, mask, value, weight);
+            }
+
+            int item = free - 1;
+            EnumerationTask without = new EnumerationTask(c, w, capacity, item, split - 1, mask, value, weight);
+            EnumerationTask with = new EnumerationTask(c, w, capacity, item, split - 1,
+                    mask | (1L << item), value + c[item], weight + w[item]);
+            with.fork();
+            Incumbent best = without.compute();
+            Incumbent other = with.join();
+
+            return other.value > best.value ? other : best;
+        }
+    }
+
+    /**
+     * Best assignment found so far, stored as a bitmask of taken items
+     */
+    static class Incumbent {
+        long value = -1;
+        long mask;
+
+        void update(long value, long mask) {
+            this.value = value;
+            this.mask = mask;
+        }
+
+        Solution toSolution(Instance instance) {
+            Solution sol = new Solution(instance);
+            for (int i = 0; i < instance.getSize(); i++) {
+                sol.set(i, (int) ((mask >>> i) & 1L));
+            }
+            return sol;
+        }
+    }
 }
\ No newline at end of file
@@ -47,6 +47,9 @@ public class Main {
 			System.out.println();
 			
 			runSolver(new BinarySolver(instance), instance);
+
+			// Exact solver for larger instances (up to about 60 items)
+			//runSolver(new MeetInTheMiddleSolver(), instance);
 			break;
 		default:
 			throw new IllegalArgumentException(usage);
@@ -0,0 +1,157 @@
+package knapsack;
+
+import java.util.Arrays;
+
+/**
+ * Exact solver for binary knapsack problems using the
+ * meet-in-the-middle approach of Horowitz and Sahni.
+ * Both halves of the items are enumerated into lists of
+ * non-dominated (weight, value) pairs which are then
+ * combined in a single sweep.
+ */
+public class MeetInTheMiddleSolver implements SolverInterface<Solution> {
+
+    /**
+     * Compute an optimal solution for the given instance
+     *
+     * @param instance The given binary knapsack instance
+     * @return The optimal solution
+     */
+    public Solution solve(Instance instance) {
+        int size = instance.getSize();
+        if (size > 124) {
+            throw new IllegalArgumentException("Meet-in-the-middle supports at most 124 items");
+        }
+
+        int half = size / 2;
+        StateList first = enumerate(instance, 0, half);
+        StateList second = enumerate(instance, half, size);
+        Logger.println("States: " + first.size + " + " + second.size);
+
+        // Both lists are sorted by weight with strictly increasing values,
+        // so the best partner of a state in the first list is the heaviest
+        // state of the second list that still fits
+        long capacity = instance.getCapacity();
+        long bestValue = -1;
+        int bestFirst = 0, bestSecond = 0;
+        int j = second.size - 1;
+        for (int i = 0; i < first.size && j >= 0; i++) {
+            while (j >= 0 && first.weight[i] + second.weight[j] > capacity) {
+                j--;
+            }
+            if (j >= 0 && first.value[i] + second.value[j] > bestValue) {
+                bestValue = first.value[i] + second.value[j];
+                bestFirst = i;
+                bestSecond = j;
+            }
+        }
+
+        Solution optimum = new Solution(instance);
+        for (int i = 0; i < half; i++) {
+            optimum.set(i, (int) ((first.mask[bestFirst] >>> i) & 1L));
+        }
+        for (int i = half; i < size; i++) {
+            optimum.set(i, (int) ((second.mask[bestSecond] >>> (i - half)) & 1L));
+        }
+
+        return optimum;
+    }
+
+    /**
+     * Computes all non-dominated subsets of the items from..to-1
+     * that fit into the knapsack. Every item doubles the list, which
+     * is then merged and filtered, so the list stays sorted by weight.
+     *
+     * @param instance The given knapsack instance
+     * @param from First item (inclusive)
+     * @param to Last item (exclusive)
+     * @return List sorted by weight with strictly increasing values
+     */
+    private StateList enumerate(Instance instance, int from, int to) {
+        long capacity = instance.getCapacity();
+        StateList current = new StateList(16);
+        StateList next = new StateList(16);
+        current.add(0, 0, 0);
+
+        for (int item = from; item < to; item++) {
+            long w = instance.getWeight(item);
+            long c = instance.getValue(item);
+            long bit = 1L << (item - from);
+
+            next.clear();
+            next.ensureCapacity(2 * current.size);
+            int a = 0, b = 0;
+            while (a < current.size || b < current.size) {
+                // Take the lighter state, or the more valuable one on equal weight
+                boolean takeA;
+                if (b == current.size || current.weight[b] + w > capacity) {
+                    if (a == current.size) {
+                        break;
+                    }
+                    takeA = true;
+                } else if (a == current.size) {
+                    takeA = false;
+                } else {
+                    long wa = current.weight[a], wb = current.weight[b] + w;
+                    takeA = wa < wb || (wa == wb && current.value[a] >= current.value[b] + c);
+                }
+
+                if (takeA) {
+                    next.addIfBetter(current.weight[a], current.value[a], current.mask[a]);
+                    a++;
+                } else {
+                    next.addIfBetter(current.weight[b] + w, current.value[b] + c, current.mask[b] | bit);
+                    b++;
+                }
+            }
+
+            StateList tmp = current;
+            current = next;
+            next = tmp;
+        }
+
+        return current;
+    }
+
+    /**
+     * List of (weight, value, mask) triples in primitive arrays
+     */
+    private static class StateList {
+        long[] weight, value, mask;
+        int size;
+
+        StateList(int capacity) {
+            weight = new long[capacity];
+            value = new long[capacity];
+            mask = new long[capacity];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > weight.length) {
+                weight = Arrays.copyOf(weight, capacity);
+                value = Arrays.copyOf(value, capacity);
+                mask = Arrays.copyOf(mask, capacity);
+            }
+        }
+
+        void add(long w, long v, long m) {
+            weight[size] = w;
+            value[size] = v;
+            mask[size] = m;
+            size++;
+        }
+
+        /**
+         * Appends a state unless it is dominated by the last one
+         */
+        void addIfBetter(long w, long v, long m) {
+            if (size == 0 || v > value[size - 1]) {
+                add(w, v, m);
+            }
+        }
+    }
+}
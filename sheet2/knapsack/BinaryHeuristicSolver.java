@@ -1,8 +1,6 @@
 package knapsack;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import javafx.util.Pair;
+import java.util.Arrays;
 
 /**
  * Branch-and-Bound solver for fractional knapsack problems
@@ -11,7 +9,8 @@ import javafx.util.Pair;
  */
 public class BinaryHeuristicSolver implements SolverInterface<Solution> {
 
-    private ArrayList<Pair<Integer, Integer>> order;
+    // Number of ratio buckets of the items packed when streaming
+    private static final int BUCKETS = 1 << 16;
 
     /**
      * Compute a solution for the given instance
@@ -20,7 +19,11 @@ public class BinaryHeuristicSolver implements SolverInterface<Solution> {
      * @return The solution
      */
     public Solution solve(Instance instance) {
-        sortItems(instance);
+        if (instance instanceof MappedInstance) {
+            return solveStreaming(instance);
+        }
+
+        int[] order = instance.getEfficiencyOrder();
 
         Solution optimum = new Solution(instance);
         int number = instance.getCapacity();
@@ -28,8 +31,8 @@ public class BinaryHeuristicSolver implements SolverInterface<Solution> {
         
         // Fill up the knapsack until it's full, starting
         // with the most cost efficient item
-        for (int i = 0; i < order.size() && optimum.isFeasible(); i++) {
-            int item = order.get(i).getKey();
+        for (int i = 0; i < order.length && optimum.isFeasible(); i++) {
+            int item = order[i];
             optimum.set(item, instance.getWeight(item) <= rest ? 1 : 0);
             rest = number - optimum.getWeight();
         }
@@ -38,27 +41,98 @@ public class BinaryHeuristicSolver implements SolverInterface<Solution> {
     }
 
     /**
-     * Compute item order according to c_1/w_1 >= ... >= c_n/w_n
+     * Compute a solution without sorting all items. Items better than the
+     * critical ratio always fit, items with the critical ratio are packed in
+     * index order. Only the worse items that still fit into the remaining
+     * space are sorted: one pass counts them per ratio bucket, one pass puts
+     * them into an index ordered by bucket, and every bucket is sorted on its
+     * own. The index is then packed with a single cursor.
      *
      * @param instance The given knapsack instance
+     * @return The solution
      */
-    private void sortItems(Instance instance) {
-        order = new ArrayList<Pair<Integer, Integer>>();
+    private Solution solveStreaming(Instance instance) {
+        CriticalRatio critical = CriticalRatio.find(instance);
+        int n = instance.getSize();
+
+        Solution optimum = new Solution(instance);
+        long rest = instance.getCapacity() - critical.aboveWeight;
+
+        for (int i = 0; i < n; i++) {
+            int weight = instance.getWeight(i);
+            double ratio = CriticalRatio.ratio(instance.getValue(i), weight);
+            if (ratio > critical.ratio) {
+                optimum.set(i, 1);
+            } else if (ratio == critical.ratio && weight <= rest) {
+                optimum.set(i, 1);
+                rest -= weight;
+            }
+        }
+
+        // Ratio range of the worse items that fit into the remaining space
+        double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            int weight = instance.getWeight(i);
+            double ratio = CriticalRatio.ratio(instance.getValue(i), weight);
+            if (ratio < critical.ratio && weight <= rest) {
+                lo = Math.min(lo, ratio);
+                hi = Math.max(hi, ratio);
+            }
+        }
+        if (lo > hi) {
+            return optimum;
+        }
+
+        // Bucket 0 holds the best ratios
+        double scale = hi > lo ? BUCKETS / (hi - lo) : 0;
+        int[] start = new int[BUCKETS + 1];
+        for (int i = 0; i < n; i++) {
+            int weight = instance.getWeight(i);
+            double ratio = CriticalRatio.ratio(instance.getValue(i), weight);
+            if (ratio < critical.ratio && weight <= rest) {
+                start[bucket(ratio, hi, scale) + 1]++;
+            }
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            start[b + 1] += start[b];
+        }
 
-        for (int i = 0; i < instance.getSize(); i++) {
-            order.add(i, new Pair<Integer, Integer>(i, instance.getValue(i)/instance.getWeight(i)));
+        // Items in index order within their bucket
+        int[] index = new int[start[BUCKETS]];
+        int[] next = Arrays.copyOf(start, BUCKETS);
+        for (int i = 0; i < n; i++) {
+            int weight = instance.getWeight(i);
+            double ratio = CriticalRatio.ratio(instance.getValue(i), weight);
+            if (ratio < critical.ratio && weight <= rest) {
+                index[next[bucket(ratio, hi, scale)]++] = i;
+            }
         }
 
-        order.sort(new Comparator<Pair<Integer, Integer>>() {
-            @Override
-            public int compare(Pair<Integer, Integer> o1, Pair<Integer, Integer> o2) {
-                if (o1.getValue() > o2.getValue())
-                    return -1;
-                else if (o1.getValue() < o2.getValue())
-                    return 1;
-                else
-                    return 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            // Once the knapsack is full only items without weight fit, in any order
+            if (rest > 0) {
+                CriticalRatio.sortByRatio(instance, index, start[b], start[b + 1]);
             }
-        });
+            for (int k = start[b]; k < start[b + 1]; k++) {
+                int item = index[k];
+                if (instance.getWeight(item) <= rest) {
+                    optimum.set(item, 1);
+                    rest -= instance.getWeight(item);
+                }
+            }
+        }
+
+        return optimum;
+    }
+
+    /**
+     * Bucket of a ratio, better ratios come first
+     *
+     * @param ratio Ratio of the item
+     * @param hi Best ratio of all bucketed items
+     * @param scale Buckets per unit of ratio
+     */
+    private static int bucket(double ratio, double hi, double scale) {
+        return (int) Math.min(BUCKETS - 1, (hi - ratio) * scale);
     }
-}
\ No newline at end of file
+}
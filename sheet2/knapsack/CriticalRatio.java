@@ -0,0 +1,238 @@
+package knapsack;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Critical efficiency of an instance, i.e. the ratio c_j/w_j of the first
+ * item that does not fit completely when the items are packed in order of
+ * decreasing efficiency. It is found either in a few passes over the items
+ * with a fixed number of buckets, so no item order has to be stored and the
+ * items can be streamed from a {@link MappedInstance}, or by selection on
+ * primitive arrays in expected linear time (Balas and Zemel).
+ */
+final class CriticalRatio {
+	// Number of buckets the remaining ratio range is split into per pass
+	private static final int BUCKETS = 4096;
+
+	/**
+	 * The critical ratio (negative infinity if all items fit)
+	 */
+	final double ratio;
+
+	/**
+	 * Total weight of the items with a larger ratio
+	 */
+	final long aboveWeight;
+
+	/**
+	 * Total value of the items with a larger ratio
+	 */
+	final long aboveValue;
+
+	private CriticalRatio(double ratio, long aboveWeight, long aboveValue) {
+		this.ratio = ratio;
+		this.aboveWeight = aboveWeight;
+		this.aboveValue = aboveValue;
+	}
+
+	/**
+	 * Efficiency of an item (items without weight come first)
+	 *
+	 * @param value Value of the item
+	 * @param weight Weight of the item
+	 */
+	static double ratio(int value, int weight) {
+		if (weight == 0) {
+			return value > 0 ? Double.POSITIVE_INFINITY : 0.0;
+		}
+		return (double) value / weight;
+	}
+
+	/**
+	 * Finds the critical ratio of the given instance. Every pass sorts the
+	 * items of the remaining ratio range into buckets and continues with
+	 * the bucket that contains the critical item, until only one ratio is left.
+	 *
+	 * @param instance The given knapsack instance
+	 */
+	static CriticalRatio find(Instance instance) {
+		int n = instance.getSize();
+		long capacity = instance.getCapacity();
+
+		double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+		long totalWeight = 0, totalValue = 0;
+		for (int i = 0; i < n; i++) {
+			int w = instance.getWeight(i);
+			double r = ratio(instance.getValue(i), w);
+			totalWeight += w;
+			totalValue += instance.getValue(i);
+			if (r != Double.POSITIVE_INFINITY) {
+				lo = Math.min(lo, r);
+				hi = Math.max(hi, r);
+			}
+		}
+		if (totalWeight <= capacity) {
+			return new CriticalRatio(Double.NEGATIVE_INFINITY, totalWeight, totalValue);
+		}
+
+		long[] bucketWeight = new long[BUCKETS];
+		double[] bucketMin = new double[BUCKETS];
+		double[] bucketMax = new double[BUCKETS];
+
+		// Invariant: the items with ratio > hi fit, the items with ratio >= lo do not
+		while (true) {
+			Arrays.fill(bucketWeight, 0);
+			Arrays.fill(bucketMin, Double.POSITIVE_INFINITY);
+			Arrays.fill(bucketMax, Double.NEGATIVE_INFINITY);
+			double scale = BUCKETS / (hi - lo);
+			long aboveWeight = 0, aboveValue = 0;
+
+			for (int i = 0; i < n; i++) {
+				int w = instance.getWeight(i);
+				double r = ratio(instance.getValue(i), w);
+				if (r > hi) {
+					aboveWeight += w;
+					aboveValue += instance.getValue(i);
+				} else if (r >= lo && lo < hi) {
+					int bucket = (int) Math.min(BUCKETS - 1, (r - lo) * scale);
+					bucketWeight[bucket] += w;
+					bucketMin[bucket] = Math.min(bucketMin[bucket], r);
+					bucketMax[bucket] = Math.max(bucketMax[bucket], r);
+				}
+			}
+
+			if (lo == hi) {
+				return new CriticalRatio(lo, aboveWeight, aboveValue);
+			}
+
+			// Walk down from the best bucket until the capacity is exceeded
+			long weight = aboveWeight;
+			int bucket = BUCKETS - 1;
+			while (weight + bucketWeight[bucket] <= capacity) {
+				weight += bucketWeight[bucket];
+				bucket--;
+			}
+			lo = bucketMin[bucket];
+			hi = bucketMax[bucket];
+		}
+	}
+
+	/**
+	 * Finds the critical ratio of the given instance by selection. The items
+	 * are partitioned around a random pivot ratio into better, equal and worse
+	 * items, and only the part that contains the critical item is kept.
+	 *
+	 * @param instance The given knapsack instance
+	 */
+	static CriticalRatio select(Instance instance) {
+		int n = instance.getSize();
+		int[] items = new int[n];
+		double[] ratios = new double[n];
+		for (int i = 0; i < n; i++) {
+			items[i] = i;
+			ratios[i] = ratio(instance.getValue(i), instance.getWeight(i));
+		}
+
+		long rest = instance.getCapacity();
+		long aboveValue = 0;
+		int lo = 0, hi = n;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		while (lo < hi) {
+			double pivot = ratios[lo + random.nextInt(hi - lo)];
+
+			// Partition into ratio > pivot [lo, gt), == pivot [gt, lt), < pivot [lt, hi)
+			int gt = lo, i = lo, lt = hi;
+			long gtWeight = 0, gtValue = 0, eqWeight = 0, eqValue = 0;
+			while (i < lt) {
+				int item = items[i];
+				if (ratios[i] > pivot) {
+					gtWeight += instance.getWeight(item);
+					gtValue += instance.getValue(item);
+					swap(items, ratios, i++, gt++);
+				} else if (ratios[i] < pivot) {
+					swap(items, ratios, i, --lt);
+				} else {
+					eqWeight += instance.getWeight(item);
+					eqValue += instance.getValue(item);
+					i++;
+				}
+			}
+
+			if (gtWeight > rest) {
+				hi = gt;
+			} else if (gtWeight + eqWeight > rest) {
+				return new CriticalRatio(pivot, instance.getCapacity() - rest + gtWeight, aboveValue + gtValue);
+			} else {
+				rest -= gtWeight + eqWeight;
+				aboveValue += gtValue + eqValue;
+				lo = lt;
+			}
+		}
+
+		return new CriticalRatio(Double.NEGATIVE_INFINITY, instance.getCapacity() - rest, aboveValue);
+	}
+
+	private static void swap(int[] items, double[] ratios, int a, int b) {
+		int item = items[a];
+		items[a] = items[b];
+		items[b] = item;
+		double ratio = ratios[a];
+		ratios[a] = ratios[b];
+		ratios[b] = ratio;
+	}
+
+	/**
+	 * Sorts items by decreasing ratio, and by index
+	 * for items with the same ratio
+	 *
+	 * @param instance The given knapsack instance
+	 * @param items Array of item indices
+	 * @param count Number of items to sort
+	 */
+	static void sortByRatio(Instance instance, int[] items, int count) {
+		double[] keys = new double[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = ratio(instance.getValue(items[i]), instance.getWeight(items[i]));
+		}
+		mergeSort(items, keys, new int[count], new double[count], 0, count);
+	}
+
+	/**
+	 * Sorts a range of items by decreasing ratio, and by index
+	 * for items with the same ratio
+	 *
+	 * @param instance The given knapsack instance
+	 * @param items Array of item indices
+	 * @param from First item to sort (inclusive)
+	 * @param to Last item to sort (exclusive)
+	 */
+	static void sortByRatio(Instance instance, int[] items, int from, int to) {
+		int[] range = Arrays.copyOfRange(items, from, to);
+		sortByRatio(instance, range, range.length);
+		System.arraycopy(range, 0, items, from, range.length);
+	}
+
+	private static void mergeSort(int[] items, double[] keys, int[] tmpItems, double[] tmpKeys, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(items, keys, tmpItems, tmpKeys, from, mid);
+		mergeSort(items, keys, tmpItems, tmpKeys, mid, to);
+
+		int a = from, b = mid;
+		for (int i = from; i < to; i++) {
+			if (b == to || (a < mid && (keys[a] > keys[b] || (keys[a] == keys[b] && items[a] < items[b])))) {
+				tmpItems[i] = items[a];
+				tmpKeys[i] = keys[a++];
+			} else {
+				tmpItems[i] = items[b];
+				tmpKeys[i] = keys[b++];
+			}
+		}
+		System.arraycopy(tmpItems, from, items, from, to - from);
+		System.arraycopy(tmpKeys, from, keys, from, to - from);
+	}
+}
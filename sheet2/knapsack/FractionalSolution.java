@@ -1,15 +1,28 @@
 package knapsack;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
- * Solution of a fractional knapsack problem
+ * Solution of a fractional knapsack problem. Items taken completely
+ * are stored in a bitset, only items taken partially are kept in a map,
+ * so solutions of the LP relaxation stay small for huge instances.
  *
  * @author Stephan Beyer
  */
 public class FractionalSolution extends GenericSolution<Double> {
 	private double epsilon = 1e-6;
+	// Bitset of the items with quantity 1
+	private long[] bits;
+	// Quantities strictly between 0 and 1
+	private HashMap<Integer, Double> fractions;
+	private double solValue;
+	private double solWeight;
 
 	public FractionalSolution(Instance instance) {
 		super(instance);
+		bits = new long[(instance.getSize() + 63) >>> 6];
+		fractions = new HashMap<Integer, Double>();
 	}
 
 	/**
@@ -17,20 +30,54 @@ public class FractionalSolution extends GenericSolution<Double> {
 	 */
 	public FractionalSolution(FractionalSolution solution) {
 		super(solution);
+		bits = solution.bits.clone();
+		fractions = new HashMap<Integer, Double>(solution.fractions);
+		solValue = solution.solValue;
+		solWeight = solution.solWeight;
 	}
 
 	@Override
 	public void set(int item, Double quantity) {
-		assert sol.size() > item : "Item number " + item + " not found!";
-		assert sol.get(item) != null : "Item " + item + " not initialized in solution.";
+		assert item < instance.getSize() : "Item number " + item + " not found!";
 		// Make sure we never take an item more than once
 		assert quantity <= 1.0 : "Quantity exceeds item limit of 1";
 
-		double newQuant = quantity - sol.get(item);
+		double newQuant = quantity - get(item);
 		solValue += newQuant * instance.getValue(item);
 		solWeight += newQuant * instance.getWeight(item);
-		Logger.println("weight " + solWeight);
-		sol.set(item, quantity);
+
+		if (quantity == 1.0) {
+			bits[item >>> 6] |= 1L << item;
+		} else {
+			bits[item >>> 6] &= ~(1L << item);
+		}
+		if (quantity == 0.0 || quantity == 1.0) {
+			fractions.remove(item);
+		} else {
+			fractions.put(item, quantity);
+		}
+	}
+
+	@Override
+	public Double get(int item) {
+		if ((bits[item >>> 6] & (1L << item)) != 0) {
+			return 1.0;
+		}
+		if (fractions.isEmpty()) {
+			return 0.0;
+		}
+		Double quantity = fractions.get(item);
+		return quantity == null ? 0.0 : quantity;
+	}
+
+	@Override
+	public Double getValue() {
+		return solValue;
+	}
+
+	@Override
+	public Double getWeight() {
+		return solWeight;
 	}
 
 	@Override
@@ -40,7 +87,8 @@ public class FractionalSolution extends GenericSolution<Double> {
 
 	@Override
 	public boolean isBinary() {
-		for (double quantity : sol) {
+		for (Map.Entry<Integer, Double> entry : fractions.entrySet()) {
+			double quantity = entry.getValue();
 			if (quantity > epsilon
 			 && quantity < 1 - epsilon) {
 				return false;
@@ -48,9 +96,4 @@ public class FractionalSolution extends GenericSolution<Double> {
 		}
 		return true;
 	}
-
-	@Override
-	protected Double zero() {
-		return 0.0;
-	}
 }
@@ -1,9 +1,5 @@
 package knapsack;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import javafx.util.Pair;
-
 /**
  * Branch-and-Bound solver for fractional knapsack problems
  *
@@ -11,7 +7,25 @@ import javafx.util.Pair;
  */
 public class FractionalSolver implements SolverInterface<FractionalSolution> {
 
-    private ArrayList<Pair<Integer, Double>> order;
+    // Find the critical item by selection instead of sorting
+    private final boolean linear;
+
+    /**
+     * Constructs a solver that sorts the items
+     */
+    public FractionalSolver() {
+        this(false);
+    }
+
+    /**
+     * Constructs a solver
+     *
+     * @param linear Find the critical item in expected linear time
+     *               by selection instead of sorting all items
+     */
+    public FractionalSolver(boolean linear) {
+        this.linear = linear;
+    }
 
     /**
      * Compute a solution for the given instance
@@ -20,7 +34,13 @@ public class FractionalSolver implements SolverInterface<FractionalSolution> {
      * @return The solution
      */
     public FractionalSolution solve(Instance instance) {
-        sortItems(instance);
+        if (instance instanceof MappedInstance) {
+            return pack(instance, CriticalRatio.find(instance));
+        } else if (linear) {
+            return pack(instance, CriticalRatio.select(instance));
+        }
+
+        int[] order = instance.getEfficiencyOrder();
 
         FractionalSolution optimum = new FractionalSolution(instance);
         int number = instance.getCapacity();
@@ -28,8 +48,8 @@ public class FractionalSolver implements SolverInterface<FractionalSolution> {
 
         // Fill up the knapsack until it's full, starting
         // with the most cost efficient item
-        for (int i = 0; i < order.size() && optimum.isFeasible(); i++) {
-            int item = order.get(i).getKey();
+        for (int i = 0; i < order.length && optimum.isFeasible(); i++) {
+            int item = order[i];
             // Clamp item quantity betwen 0.0 and 1.0
             optimum.set(item, Math.min(1.0, Math.max(0.0, (double) rest/instance.getWeight(item))));
             rest = number - optimum.getWeight();
@@ -39,27 +59,31 @@ public class FractionalSolver implements SolverInterface<FractionalSolution> {
     }
 
     /**
-     * Compute item order according to c_1/w_1 >= ... >= c_n/w_n
+     * Compute a solution from the critical ratio without sorting the
+     * items. Items with a better ratio are taken completely, items with
+     * the critical ratio are taken in index order until the knapsack is full.
      *
      * @param instance The given knapsack instance
+     * @param critical The critical ratio of the instance
+     * @return The solution
      */
-    private void sortItems(Instance instance) {
-        order = new ArrayList<Pair<Integer, Double>>();
+    private FractionalSolution pack(Instance instance, CriticalRatio critical) {
+        FractionalSolution optimum = new FractionalSolution(instance);
+        double rest = instance.getCapacity() - critical.aboveWeight;
 
         for (int i = 0; i < instance.getSize(); i++) {
-            order.add(i, new Pair<Integer, Double>(i, (double) instance.getValue(i)/instance.getWeight(i)));
+            int weight = instance.getWeight(i);
+            double ratio = CriticalRatio.ratio(instance.getValue(i), weight);
+            if (ratio > critical.ratio) {
+                optimum.set(i, 1.0);
+            } else if (ratio == critical.ratio && rest > 0) {
+                // Clamp item quantity betwen 0.0 and 1.0
+                double quantity = Math.min(1.0, Math.max(0.0, rest / weight));
+                optimum.set(i, quantity);
+                rest -= quantity * weight;
+            }
         }
 
-        order.sort(new Comparator<Pair<Integer, Double>>() {
-            @Override
-            public int compare(Pair<Integer, Double> o1, Pair<Integer, Double> o2) {
-                if (o1.getValue() > o2.getValue())
-                    return -1;
-                else if (o1.getValue() < o2.getValue())
-                    return 1;
-                else
-                    return 0;
-            }
-        });
+        return optimum;
     }
-}
\ No newline at end of file
+}
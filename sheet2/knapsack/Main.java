@@ -3,7 +3,7 @@ package knapsack;
 import java.io.IOException;
 
 public class Main {
-	private static final String usage = "Usage: [-v|--verbose] <filename>";
+	private static final String usage = "Usage: [-v|--verbose|-c|--cache|-m|--mapped] <filename>";
 
 	public static <SolutionType extends GenericSolution<?>> void runSolver(SolverInterface<SolutionType> solver, Instance instance, boolean binary) {
 		System.out.println("=== " + solver.getClass().getName() + " ===");
@@ -27,16 +27,30 @@ public class Main {
 	}
 
 	public static void main(String[] args) throws IOException {
+		boolean cache = false, mapped = false;
+
 		switch (args.length) {
 		case 2:
 			if (args[0].equals("-v")
 			 || args[0].equals("--verbose")) {
 				Logger.enable();
+			} else if (args[0].equals("-c")
+			 || args[0].equals("--cache")) {
+				// Load the instance from a binary cache next to the file
+				cache = true;
+			} else if (args[0].equals("-m")
+			 || args[0].equals("--mapped")) {
+				// Keep the items in a memory-mapped cache instead of the heap
+				mapped = true;
 			} else {
 				throw new IllegalArgumentException(usage);
 			}
 		case 1:
-			Instance instance = Reader.readInstance(args[args.length - 1]);
+			Instance instance = mapped
+				? Reader.openMappedInstance(args[args.length - 1])
+				: cache
+				? Reader.readCachedInstance(args[args.length - 1])
+				: Reader.readMappedInstance(args[args.length - 1]);
 
 			System.out.println("###############################################");
 			System.out.println("# Instance file: " + args[0]);
@@ -48,6 +62,9 @@ public class Main {
 			// Call this for task P2 a)
 			runSolver(new FractionalSolver(), instance);
 
+			// Call this for P2 a) without sorting the items (linear time)
+			//runSolver(new FractionalSolver(true), instance);
+
 			// Call this for task P2 b)
 			//runSolver(new BinaryHeuristicSolver(), instance);
 			
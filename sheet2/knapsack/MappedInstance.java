@@ -0,0 +1,102 @@
+package knapsack;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A knapsack problem instance whose values and weights stay in a
+ * memory-mapped cache file (see {@link Reader#openMappedInstance(String)})
+ * instead of the heap, so instances with more items than fit into
+ * the heap can be solved by streaming solvers.
+ */
+public class MappedInstance extends Instance {
+	// Items per mapped window (2 GB of ints at most per mapping)
+	private static final int WINDOW_BITS = 27;
+	private static final int WINDOW_MASK = (1 << WINDOW_BITS) - 1;
+
+	private final MappedByteBuffer[] values;
+	private final MappedByteBuffer[] weights;
+	private final int size;
+
+	/**
+	 * Maps the given cache file
+	 *
+	 * @param cache The cache file written by the Reader
+	 * @throws IOException
+	 */
+	public MappedInstance(Path cache) throws IOException {
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Reader.CACHE_HEADER);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			size = header.getInt(24);
+			setCapacity(header.getInt(28));
+
+			int windows = (int) (((long) size + WINDOW_MASK) >>> WINDOW_BITS);
+			values = new MappedByteBuffer[windows];
+			weights = new MappedByteBuffer[windows];
+			for (int i = 0; i < windows; i++) {
+				long first = (long) i << WINDOW_BITS;
+				long length = 4L * Math.min(1 << WINDOW_BITS, size - first);
+				values[i] = map(channel, Reader.CACHE_HEADER + 4 * first, length);
+				weights[i] = map(channel, Reader.CACHE_HEADER + 4L * size + 4 * first, length);
+			}
+		}
+	}
+
+	private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+	@Override
+	public int getValue(int item) {
+		return values[item >>> WINDOW_BITS].getInt((item & WINDOW_MASK) << 2);
+	}
+
+	@Override
+	public int getWeight(int item) {
+		return weights[item >>> WINDOW_BITS].getInt((item & WINDOW_MASK) << 2);
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Not available, the values are not stored in an array
+	 */
+	@Override
+	public int[] getValueArray() {
+		throw new UnsupportedOperationException("Values of a mapped instance are not stored in an array");
+	}
+
+	/**
+	 * Not available, the weights are not stored in an array
+	 */
+	@Override
+	public int[] getWeightArray() {
+		throw new UnsupportedOperationException("Weights of a mapped instance are not stored in an array");
+	}
+
+	/**
+	 * Not available, mapped instances are read-only
+	 */
+	@Override
+	public void setValue(int item, int value) {
+		throw new UnsupportedOperationException("Mapped instances are read-only");
+	}
+
+	/**
+	 * Not available, mapped instances are read-only
+	 */
+	@Override
+	public void setWeight(int item, int weight) {
+		throw new UnsupportedOperationException("Mapped instances are read-only");
+	}
+}
@@ -1,6 +1,15 @@
 package knapsack;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import knapsack.Instance;
 
 /**
@@ -9,6 +18,17 @@ import knapsack.Instance;
  * @author Jana Lehnfeld, Stephan Beyer, Sven Boge
  */
 public class Reader {
+	/**
+	 * Suffix of the binary cache files
+	 */
+	public static final String CACHE_SUFFIX = ".bin";
+
+	// Cache format: magic, version, size and modification time of the
+	// text file, item count, capacity, values and weights (little-endian)
+	private static final int CACHE_MAGIC = 0x4B4E4150;
+	private static final int CACHE_VERSION = 1;
+	static final int CACHE_HEADER = 32;
+
 	/**
 	 * Read knapsack instance from given file.
 	 *
@@ -35,4 +55,458 @@ public class Reader {
 		}
 		return instance;
 	}
+
+	/**
+	 * Read knapsack instance from given file by mapping it into memory
+	 * and parsing the numbers directly from the mapped bytes. Accepts the
+	 * same format as {@link #readInstance(String)} but does not create a
+	 * String for every line, which makes it much faster for large files.
+	 *
+	 * @param filename The filename of the file to read
+	 * @throws IOException
+	 */
+	public static Instance readMappedInstance(String filename) throws IOException {
+
+		Instance instance = null;
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			MappedInput input = new MappedInput(channel);
+
+			int n = input.nextInt();
+			input.endLine();
+			instance = new Instance(n);
+
+			for (int i = 0; i < n; i++) {
+				input.nextItem();
+				instance.set(i, input.value, input.weight);
+			}
+
+			instance.setCapacity(input.nextInt());
+			input.endLine();
+		}
+		return instance;
+	}
+
+	/**
+	 * Read knapsack instance from the binary cache next to the given
+	 * file. The text file is only parsed (and the cache rewritten) if
+	 * there is no cache yet or the text file changed since it was written.
+	 *
+	 * @param filename The filename of the text file to read
+	 * @throws IOException
+	 */
+	public static Instance readCachedInstance(String filename) throws IOException {
+		Path source = Paths.get(filename);
+		Path cache = Paths.get(filename + CACHE_SUFFIX);
+		long size = Files.size(source);
+		long modified = Files.getLastModifiedTime(source).toMillis();
+
+		if (Files.exists(cache)) {
+			try {
+				Instance instance = readCache(cache, size, modified);
+				if (instance != null) {
+					return instance;
+				}
+				Logger.println("Cache " + cache + " is outdated");
+			} catch (IOException e) {
+				Logger.println("Could not read cache " + cache + ": " + e.getMessage());
+			}
+		}
+
+		Instance instance = readMappedInstance(filename);
+		// The cache only saves time on the next run
+		try {
+			writeCache(instance, cache, size, modified);
+		} catch (IOException e) {
+			Logger.println("Could not write cache " + cache + ": " + e.getMessage());
+		}
+		return instance;
+	}
+
+	/**
+	 * Open the knapsack instance of the given file without loading it
+	 * into the heap. The items are read from the binary cache next to
+	 * the file, which is created by streaming through the text file if
+	 * it is missing or outdated.
+	 *
+	 * @param filename The filename of the text file to read
+	 * @throws IOException
+	 */
+	public static MappedInstance openMappedInstance(String filename) throws IOException {
+		Path source = Paths.get(filename);
+		Path cache = Paths.get(filename + CACHE_SUFFIX);
+		long size = Files.size(source);
+		long modified = Files.getLastModifiedTime(source).toMillis();
+
+		if (!Files.exists(cache) || !cacheMatches(cache, size, modified)) {
+			convertToCache(source, cache, size, modified);
+		}
+		return new MappedInstance(cache);
+	}
+
+	/**
+	 * Checks whether the header of a cache file belongs to the given text file
+	 *
+	 * @param cache The cache file
+	 * @param size Size of the text file
+	 * @param modified Modification time of the text file
+	 * @throws IOException
+	 */
+	private static boolean cacheMatches(Path cache, long size, long modified) throws IOException {
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+			if (channel.size() < CACHE_HEADER) {
+				return false;
+			}
+			ByteBuffer header = read(channel, ByteBuffer.allocate(CACHE_HEADER), 0);
+			return header.getInt() == CACHE_MAGIC && header.getInt() == CACHE_VERSION
+				&& header.getLong() == size && header.getLong() == modified
+				&& channel.size() == CACHE_HEADER + 8L * header.getInt();
+		}
+	}
+
+	/**
+	 * Converts a text file into a cache file item by item, using only
+	 * small buffers for the values and weights
+	 *
+	 * @param source The text file
+	 * @param cache The cache file
+	 * @param size Size of the text file
+	 * @param modified Modification time of the text file
+	 * @throws IOException
+	 */
+	private static void convertToCache(Path source, Path cache, long size, long modified) throws IOException {
+		Path temp = Paths.get(cache + ".tmp");
+
+		try {
+			try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+			     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				MappedInput input = new MappedInput(in);
+
+				int n = input.nextInt();
+				input.endLine();
+
+				ByteBuffer values = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+				ByteBuffer weights = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+				long valuePosition = CACHE_HEADER;
+				long weightPosition = CACHE_HEADER + 4L * n;
+
+				for (int i = 0; i < n; i++) {
+					input.nextItem();
+					values.putInt(input.value);
+					weights.putInt(input.weight);
+					if (!values.hasRemaining() || i == n - 1) {
+						valuePosition += write(out, values, valuePosition);
+						weightPosition += write(out, weights, weightPosition);
+					}
+				}
+
+				int capacity = input.nextInt();
+				input.endLine();
+
+				ByteBuffer header = ByteBuffer.allocate(CACHE_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(CACHE_MAGIC).putInt(CACHE_VERSION).putLong(size).putLong(modified);
+				header.putInt(n).putInt(capacity);
+				write(out, header, 0);
+				out.force(true);
+			}
+
+			replace(temp, cache);
+		} catch (IOException e) {
+			discard(temp, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Replaces a cache file by a temporary file. Windows refuses to
+	 * replace a file that is open elsewhere (for example mapped by a
+	 * {@link MappedInstance}), then the old cache is deleted first.
+	 *
+	 * @param temp The temporary file
+	 * @param cache The cache file
+	 * @throws IOException If the cache can not be replaced
+	 */
+	private static void replace(Path temp, Path cache) throws IOException {
+		try {
+			Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(cache);
+			Files.move(temp, cache);
+		}
+	}
+
+	/**
+	 * Deletes the temporary file of a failed write
+	 *
+	 * @param temp The temporary file
+	 * @param cause The failure, receives a failure of the deletion as suppressed
+	 */
+	private static void discard(Path temp, IOException cause) {
+		try {
+			Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+
+	/**
+	 * Fills a buffer from the given file position and flips it for reading
+	 *
+	 * @return The buffer in little-endian order
+	 * @throws EOFException If the file ends before the buffer is full
+	 */
+	private static ByteBuffer read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			position += read;
+		}
+		buffer.flip();
+		return buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Reads little-endian ints from the given file position into an array
+	 *
+	 * @return File position after the ints
+	 */
+	private static long readInts(FileChannel channel, long position, int[] target) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+		for (int i = 0; i < target.length; ) {
+			int count = Math.min(target.length - i, buffer.capacity() / 4);
+			buffer.clear().limit(4 * count);
+			read(channel, buffer, position).asIntBuffer().get(target, i, count);
+			position += 4L * count;
+			i += count;
+		}
+		return position;
+	}
+
+	/**
+	 * Writes the content of a buffer at the given file position and clears it
+	 *
+	 * @return Number of bytes written
+	 */
+	private static int write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		buffer.flip();
+		int written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer, position + written);
+		}
+		buffer.clear();
+		return written;
+	}
+
+	/**
+	 * Loads an instance from a cache file if it belongs to the given text file
+	 *
+	 * @param cache The cache file
+	 * @param size Size of the text file
+	 * @param modified Modification time of the text file
+	 * @return The instance or null if the cache does not match
+	 * @throws IOException
+	 */
+	private static Instance readCache(Path cache, long size, long modified) throws IOException {
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+			if (channel.size() < CACHE_HEADER) {
+				return null;
+			}
+
+			// The cache is read into the heap, a mapping would keep the file
+			// open until it is garbage collected
+			ByteBuffer data = read(channel, ByteBuffer.allocate(CACHE_HEADER), 0);
+			if (data.getInt() != CACHE_MAGIC || data.getInt() != CACHE_VERSION
+			 || data.getLong() != size || data.getLong() != modified) {
+				return null;
+			}
+
+			int n = data.getInt();
+			int capacity = data.getInt();
+			if (n < 0 || channel.size() != CACHE_HEADER + 8L * n) {
+				return null;
+			}
+
+			Instance instance = new Instance(n);
+			instance.setCapacity(capacity);
+			long position = readInts(channel, CACHE_HEADER, instance.getValueArray());
+			readInts(channel, position, instance.getWeightArray());
+			return instance;
+		}
+	}
+
+	/**
+	 * Writes an instance to a cache file. The data is written to a
+	 * temporary file first, so an interrupted write never leaves a
+	 * broken cache behind.
+	 *
+	 * @param instance The instance to store
+	 * @param cache The cache file
+	 * @param size Size of the text file
+	 * @param modified Modification time of the text file
+	 * @throws IOException
+	 */
+	private static void writeCache(Instance instance, Path cache, long size, long modified) throws IOException {
+		int n = instance.getSize();
+		Path temp = Paths.get(cache + ".tmp");
+
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer data = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+				data.putInt(CACHE_MAGIC).putInt(CACHE_VERSION).putLong(size).putLong(modified);
+				data.putInt(n).putInt(instance.getCapacity());
+				long position = 0;
+				for (int[] array : new int[][] { instance.getValueArray(), instance.getWeightArray() }) {
+					for (int i = 0; i < n; i++) {
+						if (!data.hasRemaining()) {
+							position += write(channel, data, position);
+						}
+						data.putInt(array[i]);
+					}
+				}
+				write(channel, data, position);
+				channel.force(true);
+			}
+
+			replace(temp, cache);
+		} catch (IOException e) {
+			discard(temp, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads a file byte by byte through memory-mapped windows
+	 */
+	private static class MappedInput {
+		// Size of the mapped windows (files may be larger than 2 GB)
+		private static final long WINDOW = 1L << 28;
+
+		private final FileChannel channel;
+		private final long size;
+		private MappedByteBuffer buffer;
+		// File offset of the window, read position and end inside the window
+		private long offset;
+		private int position, limit;
+		// Value and weight of the last item read by nextItem()
+		int value, weight;
+
+		MappedInput(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			map(0);
+		}
+
+		private void map(long start) throws IOException {
+			offset = start;
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+			position = 0;
+			limit = buffer.limit();
+		}
+
+		/**
+		 * Returns the next byte without consuming it, or -1 at the end of the file
+		 */
+		private int peek() throws IOException {
+			if (position == limit) {
+				if (offset + limit >= size) {
+					return -1;
+				}
+				map(offset + limit);
+			}
+			return buffer.get(position) & 0xff;
+		}
+
+		private void skip() {
+			position++;
+		}
+
+		/**
+		 * Skips blanks on the current line and tells whether a token follows
+		 */
+		boolean hasToken() throws IOException {
+			int b;
+			do {
+				// Skip blanks inside the current window without going through peek()
+				while (position < limit && (b = buffer.get(position) & 0xff) <= ' ' && b != '\n') {
+					position++;
+				}
+				b = peek();
+			} while (b != -1 && b != '\n' && b <= ' ');
+			return b != -1 && b != '\n';
+		}
+
+		/**
+		 * Consumes the rest of the current line, which must be blank
+		 */
+		void endLine() throws IOException {
+			if (hasToken()) {
+				throw new IOException("Item format invalid");
+			}
+			if (peek() == '\n') {
+				skip();
+			}
+		}
+
+		/**
+		 * Parses a line holding exactly the value and weight of an item
+		 */
+		void nextItem() throws IOException {
+			if (!hasToken()) {
+				throw new IOException("Item format invalid");
+			}
+			value = nextInt();
+			if (!hasToken()) {
+				throw new IOException("Item format invalid");
+			}
+			weight = nextInt();
+			endLine();
+		}
+
+		/**
+		 * Parses the next integer on the current line
+		 */
+		int nextInt() throws IOException {
+			if (!hasToken()) {
+				throw new IOException("Unexpected end of line");
+			}
+
+			boolean negative = false;
+			int b = peek();
+			if (b == '-' || b == '+') {
+				negative = b == '-';
+				skip();
+				b = peek();
+			}
+
+			long number = 0;
+			int digits = 0;
+			while (b >= '0' && b <= '9') {
+				// Parse the digits inside the current window without going through peek()
+				int i = position;
+				while (i < limit && (b = buffer.get(i)) >= '0' && b <= '9') {
+					number = number * 10 + (b - '0');
+					if (number > (long) Integer.MAX_VALUE + 1) {
+						throw new NumberFormatException("Number out of range");
+					}
+					i++;
+				}
+				digits += i - position;
+				position = i;
+				b = peek();
+			}
+			if (digits == 0 || (b > ' ' && b != -1)) {
+				throw new NumberFormatException("Invalid number");
+			}
+
+			number = negative ? -number : number;
+			if (number > Integer.MAX_VALUE) {
+				throw new NumberFormatException("Number out of range");
+			}
+			return (int) number;
+		}
+	}
 }
@@ -15,9 +15,49 @@ public class BnBBinarySolver {
 	protected List<Item> items;
 	protected int capacity;
 	
+	//prefix sums of the sorted weights and values, entry i holds the sum of items 0..i-1
+	protected long[] weightSums;
+	protected long[] valueSums;
+	
+	//number of nodes taken from the queue in the last run
+	protected long nodes;
+	
+	//maximum number of nodes in the queue before diving depth-first
+	protected int maxQueueSize;
+	
+	//default queue cap, about 50 MB of nodes
+	public static final int DEFAULT_MAX_QUEUE_SIZE = 1 << 20;
+	
+	//search limits, no limits by default
+	protected long timeLimit = Long.MAX_VALUE;
+	protected long nodeLimit = Long.MAX_VALUE;
+	protected IncumbentListener<List<Item>> listener;
+	
+	//result of the last run with its proven upper bound
+	protected Incumbent<List<Item>> incumbent;
+	
+	/**
+	 * Link in the chain of items packed so far. Children share the
+	 * chain of their parent, so a packed item costs one link.
+	 * @author andikrus
+	 *
+	 */
+	private static class Decision {
+		
+		//index of the packed item in the sorted list
+		final int item;
+		//items packed before
+		final Decision prev;
+		
+		Decision(int item, Decision prev){
+			this.item = item;
+			this.prev = prev;
+		}
+	}
+	
 	/**
 	 * A node holds information about its position in the search tree,
-	 * all items that are packed into the knapsack so far,
+	 * the last item packed into the knapsack so far,
 	 * a bound plus the sum of all the values and weights of the items 
 	 * packed so far. Nodes can be compared by their bound for an 
 	 * efficient sorting of nodes.
@@ -29,27 +69,28 @@ public class BnBBinarySolver {
 		
 		// position in search tree
 		public int h;
-		//list of items packed so far
-		ArrayList<Item> taken;
+		//chain of items packed so far
+		Decision taken;
 		public double bound;
-		public double value;
-		public double weight;
+		public long value;
+		public long weight;
 		
 		public Node(){
-			taken = new ArrayList<Item>();
 		}
 		
 		//
 		public Node (Node parent){
 			h = parent.h+1;
-			taken = new ArrayList<Item>(parent.taken);
+			taken = parent.taken;
 			bound = parent.bound;
 			value = parent.value;
 			weight = parent.weight;
 		}
 		
 		public int compareTo(Node other){
-			return(int)(other.bound - bound);
+			int cmp = Double.compare(other.bound, bound);
+			//on equal bounds, deeper nodes come first to find solutions early
+			return cmp != 0 ? cmp : Integer.compare(other.h, h);
 		}
 		
 		/**
@@ -57,44 +98,82 @@ public class BnBBinarySolver {
 		 */
 		public void computeBound(){
 			
-			int i = h;
-			double w = weight;
-			bound = value;
-			Item item;
-			do {
-				//iterate through items beginning at height in search tree and add 
-				//up weights and values of items until either capacity would be reached 
-				//in the next iteration or all items are considered
-				item = items.get(i);
-				if(w + item.weight > capacity) break;
-				w += item.weight;
-				bound += item.value;
-				i++;
-			} while (i < items.size());
-			//last item gets packed fractional to add up to the capacity
-			bound += (capacity - w) * (item.value / item.weight);
+			//items h..j-1 fit completely, j is the largest index with
+			//weightSums[j] - weightSums[h] <= capacity - weight
+			int j = criticalItem(h, capacity - weight);
+			double w = weight + (weightSums[j] - weightSums[h]);
+			bound = value + (valueSums[j] - valueSums[h]);
+			//critical item gets packed fractional to add up to the capacity
+			if (j < items.size()) {
+				bound += (capacity - w) * items.get(j).getCW();
+			}
+			//values are integers, so the fractional part can never be reached
+			bound = Math.floor(bound);
 		}
 		
 	}
 
+	/**
+	 * Binary search for the first item starting at height h
+	 * that does not fit completely into the remaining capacity
+	 * @param h, first item to pack
+	 * @param rest, remaining capacity
+	 * @return index of the critical item, items.size() if all items fit
+	 */
+	private int criticalItem(int h, double rest) {
+		double limit = weightSums[h] + rest;
+		int lo = h, hi = items.size();
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (weightSums[mid] <= limit) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
 	/**
 	 * 
 	 * @param items, list of given items
 	 * @param capacity, weight limit
 	 */
 	public BnBBinarySolver(List<Item>items, int capacity){
+		this(items, capacity, DEFAULT_MAX_QUEUE_SIZE);
+	}
+	
+	/**
+	 * 
+	 * @param items, list of given items
+	 * @param capacity, weight limit
+	 * @param maxQueueSize, number of queued nodes after which new nodes are explored depth-first
+	 */
+	public BnBBinarySolver(List<Item>items, int capacity, int maxQueueSize){
 		this.items = items;
 		this.capacity = capacity;
+		this.maxQueueSize = maxQueueSize;
 	}
 	
 	/**
 	 * Solves binary knapsack problem, branch and bound algorithm
-	 * @return solution for bkp
+	 * @return solution for bkp, or the best one found if a limit
+	 * was reached (see {@link #getIncumbent()})
 	 */
 	public List<Item> solve() {
 		//items get sorted according to c/w ratio
 		Collections.sort(items, Item.byRatio());
 		
+		weightSums = new long[items.size() + 1];
+		valueSums = new long[items.size() + 1];
+		for (int i = 0; i < items.size(); i++) {
+			weightSums[i + 1] = weightSums[i] + items.get(i).weight;
+			valueSums[i + 1] = valueSums[i] + items.get(i).value;
+		}
+		nodes = 0;
+		long start = System.nanoTime();
+		long deadline = timeLimit < Long.MAX_VALUE ? start + timeLimit * 1000000 : 0;
+		boolean stopped = false;
 		
 		Node best = new Node();
 		Node root = new Node();
@@ -104,12 +183,28 @@ public class BnBBinarySolver {
 		//q holds all considerable solutions, sorted by bounds
 		PriorityQueue<Node> q = new PriorityQueue<Node>();
 		q.offer(root);
+		//nodes that did not fit into q, explored depth-first before q is polled again
+		ArrayDeque<Node> stack = new ArrayDeque<Node>();
+		//the stack is empty whenever q is polled, so the bound of the last
+		//node polled from q bounds all open nodes
+		double upperBound = root.bound;
 		
-		while(!q.isEmpty()) {
-			Node node = q.poll();
-			
+		while(!q.isEmpty() || !stack.isEmpty()) {
+			//the clock is only read every 1024 nodes
+			if (nodes >= nodeLimit || (deadline != 0 && (nodes & 1023) == 0 && System.nanoTime() - deadline >= 0)) {
+				stopped = true;
+				break;
+			}
+			Node node;
+			if (stack.isEmpty()) {
+				node = q.poll();
+				upperBound = node.bound;
+			} else {
+				node = stack.pop();
+			}
+			nodes++;
 			
-			if(node.bound > best.value && node.h < items.size() - 1) {
+			if(node.bound > best.value && node.h < items.size()) {
 				//Node with: right branch of search tree, xi = 1, item gets packed into knapsack
 				Node with = new Node(node);
 				Item item = items.get(node.h);
@@ -118,7 +213,7 @@ public class BnBBinarySolver {
 				//if the weight of node with is not higher than the capacity...
 				if (with.weight <= capacity) {
 					//...the item of index node.h gets added to the node with...
-					with.taken.add(items.get(node.h));
+					with.taken = new Decision(node.h, node.taken);
 					with.value += item.value;
 					//...and a new bound is computed.
 					with.computeBound();
@@ -126,11 +221,9 @@ public class BnBBinarySolver {
 					//best gets updated if the current value is the current best
 					if (with.value > best.value){
 						best = with;
-					}
-					//and with gets added to the considerable solutions if its bound 
-					//is better than the current best
-					if (with.bound > best.value){
-						q.offer(with);
+						if (listener != null) {
+							listener.improved(new Incumbent<List<Item>>(takenItems(best), best.value, (long) upperBound));
+						}
 					}
 				}
 				//Node without: left branch of sub tree, xi = 0, item does not get packed into knapsack
@@ -140,13 +233,102 @@ public class BnBBinarySolver {
 				//Without is also considered as a possible solution, if the computed bound is 
 				// bigger than best.value
 				if (without.bound > best.value){
-					q.offer(without);
+					offer(q, stack, without);
+				}
+				//with is offered last, so it is the first node to dive into
+				if (with.weight <= capacity && with.bound > best.value){
+					offer(q, stack, with);
 				}
 				
 			}
 		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		Logger.println("Nodes: " + nodes + " (" + (long) (nodes / seconds) + " per second)");
+		
+		//when stopped, the open nodes bound the optimum
+		if (stopped) {
+			upperBound = q.isEmpty() ? 0 : q.peek().bound;
+			for (Node node : stack) {
+				upperBound = Math.max(upperBound, node.bound);
+			}
+		}
+		
 		//A list of all taken items from the best solution gets returned
-		return best.taken;
+		List<Item> taken = takenItems(best);
+		incumbent = new Incumbent<List<Item>>(taken, best.value, stopped ? (long) upperBound : best.value);
+		if (stopped) {
+			Logger.println("Stopped: " + incumbent);
+		}
+		return taken;
+	}
+	
+	/**
+	 * Collects the items packed in a node
+	 * @param node, node of the search tree
+	 * @return packed items in sorted order
+	 */
+	private List<Item> takenItems(Node node) {
+		List<Item> taken = new ArrayList<Item>();
+		for (Decision d = node.taken; d != null; d = d.prev) {
+			taken.add(items.get(d.item));
+		}
+		Collections.reverse(taken);
+		return taken;
+	}
+	
+	/**
+	 * Adds a node to the queue, or to the stack if the queue is full
+	 * @param q, queue of nodes sorted by bounds
+	 * @param stack, nodes to explore depth-first
+	 * @param node, node to add
+	 */
+	private void offer(PriorityQueue<Node> q, ArrayDeque<Node> stack, Node node) {
+		if (q.size() < maxQueueSize) {
+			q.offer(node);
+		} else {
+			stack.push(node);
+		}
+	}
+	
+	/**
+	 * Number of nodes taken from the queue in the last run
+	 * @return node count
+	 */
+	public long getNodeCount() {
+		return nodes;
+	}
+	
+	/**
+	 * Stops the search after the given time
+	 * @param millis, time limit in milliseconds
+	 */
+	public void setTimeLimit(long millis) {
+		timeLimit = millis;
+	}
+	
+	/**
+	 * Stops the search after the given number of nodes
+	 * @param nodes, node limit
+	 */
+	public void setNodeLimit(long nodes) {
+		nodeLimit = nodes;
+	}
+	
+	/**
+	 * Sets the listener that receives every improving solution
+	 * @param listener, the listener, null for none
+	 */
+	public void setIncumbentListener(IncumbentListener<List<Item>> listener) {
+		this.listener = listener;
+	}
+	
+	/**
+	 * Result of the last run with its proven upper bound,
+	 * the gap is 0 unless a limit was reached
+	 * @return best solution and its gap
+	 */
+	public Incumbent<List<Item>> getIncumbent() {
+		return incumbent;
 	}
 	
 	
@@ -1,86 +1,236 @@
 package knapsack;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-
 /**
  * Branch-and-Bound solver for Binary knapsack problems
  *
  * @author Tobias Loske
  */
-public class BnBBinarySolverAlt implements SolverInterface<Solution> {
+public class BnBBinarySolverAlt implements CooperativeSolver {
+
+    private int[] order;
+    private long optimumValue;
+    private Solution best;
+
+    // Value a solution has to beat, at least the shared value
+    private long cutoff;
+    private SharedIncumbent shared;
+
+    // Whether the item at each position is packed, on the current path and in the best solution
+    private boolean[] path;
+    private boolean[] bestPath;
+
+    // Bound given to the constructor, null to select one per instance
+    private final BoundStrategy strategy;
+    private BoundStrategy bound;
+
+    // Search limits, no limits by default
+    private long timeLimit = Long.MAX_VALUE;
+    private long nodeLimit = Long.MAX_VALUE;
+    private IncumbentListener<Solution> listener;
+
+    private long deadline;
+    private long nodes;
+    private boolean stopped;
+
+    // Bound of the root, and largest bound of the subtrees left after stopping
+    private long rootBound;
+    private long openBound;
 
-    private ArrayList<Pair> order;
-    private int optimumValue;
+    private Incumbent<Solution> incumbent;
+
+    /**
+     * Constructs a solver that selects the bound for every instance
+     */
+    public BnBBinarySolverAlt() {
+        this(null);
+    }
+
+    /**
+     * Constructs a solver with the given bound
+     * @param strategy the bound, prepared again for every instance
+     */
+    public BnBBinarySolverAlt(BoundStrategy strategy) {
+        this.strategy = strategy;
+    }
 
 	/**
 	 * Solves the given instance of the knapsack Problem
 	 * @param instance the instance of the knapsack problem
-	 * @return the optimal Solution to the Problem
+	 * @return the optimal Solution to the Problem, or the best one found
+	 *         if a limit was reached (see {@link #getIncumbent()})
 	 */
     public Solution solve(Instance instance) {
-        sortItems(instance);
+        order = instance.getEfficiencyOrder();
+        if (strategy != null) {
+            bound = strategy;
+            bound.prepare(instance);
+        } else {
+            bound = BoundStrategy.select(instance);
+        }
+        Logger.println("Bound: " + bound.getClass().getSimpleName());
+        nodes = 0;
+        stopped = false;
+        openBound = 0;
+        if (timeLimit < Long.MAX_VALUE) {
+            deadline = System.nanoTime() + timeLimit * 1000000;
+        }
 
-        Solution optimum = getStartingSolution(instance);
-        optimumValue = optimum.getValue();
+        best = getStartingSolution(instance);
+        optimumValue = best.getValue();
+        cutoff = optimumValue;
+        if (shared != null) {
+            shared.offer(best, getClass().getSimpleName());
+            cutoff = Math.max(cutoff, shared.getValue());
+        }
+        bestPath = null;
+        rootBound = bound.upperBound(0, 0, 0);
+        publish();
 
-        optimum = recSolve(instance, new Solution(instance), 0);
+        long start = System.nanoTime();
+        search(instance);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Logger.println("Nodes: " + nodes + " (" + (long) (nodes / seconds) + " per second)");
 
-        return optimum;
+        if (bestPath != null) {
+            best = toSolution(instance, bestPath);
+        }
+        long upperBound = stopped ? Math.max(cutoff, openBound) : cutoff;
+        incumbent = new Incumbent<Solution>(best, optimumValue, upperBound);
+        if (stopped) {
+            Logger.println("Stopped after " + nodes + " nodes: " + incumbent);
+        }
+        return best;
     }
 
     /**
-     * Determines the optimal Solution to the problem using recursion
+     * Depth-first search over the items in efficiency order. The depth
+     * is the position that is decided next; every level of the stack
+     * stores which child was taken first and the bound of the other one,
+     * so going back only undoes the decision of one item.
      * @param instance	the given knapsack Problem
-     * @param solution  A Solution to the Problem
-     * @param index which item is going to be put into the knapsack
-     * @return  the optimal Solution
      */
-    private Solution recSolve(Instance instance, Solution solution, int index) {
-        if (index == order.size() - 1) {
-            if (solution.getValue() > optimumValue) {
-                optimumValue = solution.getValue();
-            }
-            return solution;
-        } else if (calculateUpperBound(instance, solution, index - 1) < optimumValue) {
-            return solution;
-        }
+    private void search(Instance instance) {
+        int n = order.length;
+        long capacity = instance.getCapacity();
+        path = new boolean[n];
 
-        Solution sol1 = new Solution(solution);
+        // Bound of the node at each depth, computed by its parent
+        long[] bounds = new long[n + 1];
+        // Bound of the second child, -1 if there is none
+        long[] secondBounds = new long[n];
+        // 0: node entered, 1: first child searched, 2: both children searched
+        byte[] phase = new byte[n + 1];
 
-        Solution sol2 = new Solution(solution);
-        sol2.set(order.get(index).index, 1);
+        long value = 0, weight = 0;
+        int depth = 0;
+        bounds[0] = rootBound;
 
-        if (sol2.isFeasible()) {
-            if (calculateUpperBound(instance, sol1, index) > calculateUpperBound(instance, sol2, index)) {
-                sol1 = recSolve(instance, sol1, index + 1);
-                sol2 = recSolve(instance, sol2, index + 1);
-            } else {
-                sol2 = recSolve(instance, sol2, index + 1);
-                sol1 = recSolve(instance, sol1, index + 1);
+        while (depth >= 0) {
+            if (depth == n) {
+                if (value > cutoff) {
+                    optimumValue = cutoff = value;
+                    bestPath = path.clone();
+                    publish();
+                    if (shared != null) {
+                        shared.offer(toSolution(instance, bestPath), getClass().getSimpleName());
+                    }
+                }
+                depth--;
+                continue;
             }
 
-            if (sol1.getValue() > sol2.getValue()) {
-                return sol1;
+            int item = order[depth];
+            if (phase[depth] == 0) {
+                if (bounds[depth] <= cutoff) {
+                    depth--;
+                    continue;
+                } else if (limitReached()) {
+                    // The subtree stays open and bounds the optimum
+                    openBound = Math.max(openBound, bounds[depth]);
+                    depth--;
+                    continue;
+                }
+                nodes++;
+
+                // The child with the larger bound is searched first
+                long without = bound.upperBound(depth + 1, value, weight);
+                long with = -1;
+                if (weight + instance.getWeight(item) <= capacity) {
+                    with = bound.upperBound(depth + 1, value + instance.getValue(item), weight + instance.getWeight(item));
+                }
+                path[depth] = with >= without;
+                bounds[depth + 1] = path[depth] ? with : without;
+                secondBounds[depth] = path[depth] ? without : with;
+                phase[depth] = 1;
             } else {
-                return sol2;
+                // Undo the child that was searched
+                if (path[depth]) {
+                    value -= instance.getValue(item);
+                    weight -= instance.getWeight(item);
+                }
+                if (phase[depth] == 2 || secondBounds[depth] <= cutoff) {
+                    phase[depth] = 0;
+                    depth--;
+                    continue;
+                }
+                path[depth] = !path[depth];
+                bounds[depth + 1] = secondBounds[depth];
+                phase[depth] = 2;
             }
-        } else {
-            sol1 = recSolve(instance, new Solution(sol1), index + 1);
-            return sol1;
+
+            if (path[depth]) {
+                value += instance.getValue(item);
+                weight += instance.getWeight(item);
+            }
+            depth++;
+            phase[depth] = 0;
         }
     }
 
     /**
-     * Calculates the UpperBound of a given Solution
+     * Checks the node and time limits, the clock and the shared
+     * incumbent are only read every 1024 nodes
+     * @return whether the search has to stop
+     */
+    private boolean limitReached() {
+        if (shared != null && (nodes & 1023) == 0) {
+            cutoff = Math.max(cutoff, shared.getValue());
+            if (shared.isFinished()) {
+                stopped = true;
+            }
+        }
+        if (!stopped && (nodes >= nodeLimit || (timeLimit < Long.MAX_VALUE
+                && (nodes & 1023) == 0 && System.nanoTime() - deadline >= 0))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Passes a copy of the best Solution to the listener. Before the
+     * search is finished only the bound of the root is proven.
+     */
+    private void publish() {
+        if (listener != null) {
+            Solution solution = bestPath == null ? new Solution(best) : toSolution(best.getInstance(), bestPath);
+            listener.improved(new Incumbent<Solution>(solution, optimumValue, rootBound));
+        }
+    }
+
+    /**
+     * Converts the packed positions of a path into a Solution
      * @param instance the knapsack instance
-     * @param solution the solution for which the upper bound shall be calculated
-     * @param index which item is going to be put into the knapsack
-     * @return  the upperBound of the Solution
+     * @param packed whether the item at each position is packed
+     * @return  the Solution
      */
-    private int calculateUpperBound(Instance instance, Solution solution, int index) {
-        int upperBound = (int) (solution.getValue() + (order.get(index + 1).cw * (instance.getCapacity() - solution.getWeight())) + 0.5);
-        return upperBound;
+    private Solution toSolution(Instance instance, boolean[] packed) {
+        Solution solution = new Solution(instance);
+        for (int k = 0; k < packed.length; k++) {
+            if (packed[k]) {
+                solution.set(order[k], 1);
+            }
+        }
+        return solution;
     }
 
     /**
@@ -97,8 +247,8 @@ public class BnBBinarySolverAlt implements SolverInterface<Solution> {
 
         // Fill up the knapsack until it's full, starting
         // with the most cost efficient item
-        for (int i = 0; i < order.size() && optimum.isFeasible(); i++) {
-            int item = order.get(i).index;
+        for (int i = 0; i < order.length && optimum.isFeasible(); i++) {
+            int item = order[i];
             optimum.set(item, instance.getWeight(item) <= rest ? 1 : 0);
             rest = number - optimum.getWeight();
         }
@@ -107,41 +257,52 @@ public class BnBBinarySolverAlt implements SolverInterface<Solution> {
     }
 
     /**
-     * Compute item order according to c_1/w_1 >= ... >= c_n/w_n
-     *
-     * @param instance The given knapsack instance
+     * Number of nodes branched on in the last run
+     * @return node count
      */
-    private void sortItems(Instance instance) {
-        order = new ArrayList<Pair>();
+    public long getNodeCount() {
+        return nodes;
+    }
 
-        for (int i = 0; i < instance.getSize(); i++) {
-            order.add(i, new Pair(i, (double) instance.getValue(i), (double) instance.getWeight(i)));
-        }
+    /**
+     * Stops the search after the given time, the best Solution found so far is returned
+     * @param millis time limit in milliseconds
+     */
+    public void setTimeLimit(long millis) {
+        timeLimit = millis;
+    }
 
-        order.sort(new Comparator<Pair>() {
-            @Override
-            public int compare(Pair o1, Pair o2) {
-                return o1.cw > o2.cw ? -1 : (o1.cw < o2.cw ? 1 : 0);
-            }
-        });
+    /**
+     * Stops the search after the given number of nodes
+     * @param nodes node limit
+     */
+    public void setNodeLimit(long nodes) {
+        nodeLimit = nodes;
     }
 
     /**
-     * Private class that holds an index and the computed
-     * value-to-weight ratio of that item.
-     *
+     * Sets the listener that receives every improving Solution
+     * @param listener the listener, null for none
      */
-    private class Pair implements Comparable<Pair> {
-        public double cw;
-        public int index;
+    public void setIncumbentListener(IncumbentListener<Solution> listener) {
+        this.listener = listener;
+    }
 
-        public Pair(int i, double value, double weight) {
-            cw = value / weight;
-            index = i;
-        }
+    /**
+     * Prunes with the given incumbent and offers better Solutions to it
+     * @param shared the incumbent shared with other solvers, null for none
+     */
+    public void setSharedIncumbent(SharedIncumbent shared) {
+        this.shared = shared;
+    }
 
-        public int compareTo(Pair other) {
-            return (int) (this.cw - other.cw);
-        }
+    /**
+     * Get the result of the last run with its proven upper bound,
+     * the gap is 0 unless a limit was reached or the search was
+     * pruned with a better shared incumbent
+     * @return the best Solution and its gap
+     */
+    public Incumbent<Solution> getIncumbent() {
+        return incumbent;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package knapsack;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the bounds of {@link BnBBinarySolverAlt} by node count and
+ * runtime. Every run is stopped after the time limit; stopped runs are
+ * marked with their optimality gap.
+ */
+public class BoundBenchmark {
+    private static final String usage = "Usage: [-t <seconds>] <file or directory>...";
+
+    // Default time limit per run in seconds
+    private static final long DEFAULT_TIME_LIMIT = 60;
+
+    public static void main(String[] args) throws IOException {
+        long timeLimit = DEFAULT_TIME_LIMIT;
+        List<String> files = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-t") && i + 1 < args.length) {
+                timeLimit = Long.parseLong(args[++i]);
+            } else {
+                File file = new File(args[i]);
+                if (file.isDirectory()) {
+                    String[] names = file.list();
+                    Arrays.sort(names);
+                    for (String name : names) {
+                        files.add(new File(file, name).getPath());
+                    }
+                } else {
+                    files.add(args[i]);
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException(usage);
+        }
+
+        BoundStrategy[] bounds = {new DantzigBound(), new MartelloTothBound(), new LagrangianBound()};
+        System.out.printf("%-24s %-30s %12s %10s %10s%n", "instance", "bound", "nodes", "time [s]", "gap");
+        for (String file : files) {
+            Instance instance = Reader.readInstance(file);
+            String name = new File(file).getName();
+            for (BoundStrategy bound : bounds) {
+                run(name, bound.getClass().getSimpleName(), new BnBBinarySolverAlt(bound), instance, timeLimit);
+            }
+            String selected = BoundStrategy.select(instance).getClass().getSimpleName();
+            run(name, "selected: " + selected, new BnBBinarySolverAlt(), instance, timeLimit);
+        }
+    }
+
+    private static void run(String name, String bound, BnBBinarySolverAlt solver, Instance instance, long timeLimit) {
+        solver.setTimeLimit(timeLimit * 1000);
+        long start = System.nanoTime();
+        solver.solve(instance);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Incumbent<Solution> result = solver.getIncumbent();
+        String gap = result.isOptimal() ? "-" : String.format("%.4f%%", 100 * result.getGap());
+        System.out.printf("%-24s %-30s %12d %10.3f %10s%n", name, bound, solver.getNodeCount(), seconds, gap);
+    }
+}
@@ -0,0 +1,47 @@
+package knapsack;
+
+/**
+ * Upper bound for branch and bound over the items in efficiency order.
+ * A partial solution has decided the items before some position; the
+ * bound covers all of its completions with the items from that position on.
+ */
+public interface BoundStrategy {
+
+    /**
+     * Precomputes the data for the given instance, called once before the search
+     *
+     * @param instance The given knapsack instance
+     */
+    void prepare(Instance instance);
+
+    /**
+     * Get an upper bound on the value of all completions of a partial solution
+     *
+     * @param position First undecided position in the efficiency order
+     * @param value Value of the decided items
+     * @param weight Weight of the decided items, at most the capacity
+     * @return Upper bound on the value
+     */
+    long upperBound(int position, long value, long weight);
+
+    /**
+     * Chooses a bound for the given instance. The bound of Martello and
+     * Toth costs two more divisions than the Dantzig bound, which only
+     * pays off if it is tighter at the root. The Lagrangian bound is never
+     * chosen: it saves the search for the critical item, but its fixed
+     * multiplier lets the tree grow by orders of magnitude.
+     *
+     * @param instance The given knapsack instance
+     * @return Prepared bound
+     */
+    static BoundStrategy select(Instance instance) {
+        DantzigBound dantzig = new DantzigBound();
+        dantzig.prepare(instance);
+        MartelloTothBound martelloToth = new MartelloTothBound();
+        martelloToth.prepare(instance);
+        if (martelloToth.upperBound(0, 0, 0) < dantzig.upperBound(0, 0, 0)) {
+            return martelloToth;
+        }
+        return dantzig;
+    }
+}
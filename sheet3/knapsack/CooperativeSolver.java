@@ -0,0 +1,22 @@
+package knapsack;
+
+/**
+ * Solver that can run in a portfolio: it prunes with the shared incumbent,
+ * offers every better solution to it and stops once it is finished
+ */
+public interface CooperativeSolver extends SolverInterface<Solution> {
+
+    /**
+     * Sets the incumbent shared with other solvers, null for none
+     *
+     * @param shared The shared incumbent
+     */
+    void setSharedIncumbent(SharedIncumbent shared);
+
+    /**
+     * Get the result of the last run with its proven upper bound.
+     * If the search was pruned with the shared incumbent, the bound
+     * may only be reached by the shared solution.
+     */
+    Incumbent<Solution> getIncumbent();
+}
@@ -0,0 +1,125 @@
+package knapsack;
+
+/**
+ * Exact solver for large binary knapsack problems using an expanding
+ * core (Pisinger). Only a small core of items around the critical item
+ * in the efficiency order is solved exactly, the items before the core
+ * are packed and the items after it are left out. Every outside item
+ * is then tested with the reduction bounds (see {@link Reduction}) against
+ * the better of the core and the greedy solution; if one of them can not
+ * be proven to take its fixed value, the core is expanded to cover it.
+ */
+public class CoreSolver implements SolverInterface<Solution> {
+
+    // Number of items in the first core
+    private static final int INITIAL_CORE = 50;
+
+    // Cores with at most this many DP cells are solved by dynamic programming
+    private static final long MAX_DP_CELLS = 1L << 31;
+
+    /**
+     * Compute an optimal solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The optimal solution
+     */
+    public Solution solve(Instance instance) {
+        int n = instance.getSize();
+        int[] order = instance.getEfficiencyOrder();
+        long[] valueSums = instance.getValueSums();
+        long[] weightSums = instance.getWeightSums();
+        long capacity = instance.getCapacity();
+
+        Solution optimum = new Solution(instance);
+        if (weightSums[n] <= capacity) {
+            for (int i = 0; i < n; i++) {
+                optimum.set(i, 1);
+            }
+            return optimum;
+        }
+
+        Reduction reduction = new Reduction(instance);
+        int critical = reduction.getCritical();
+
+        int lo = Math.max(0, critical - INITIAL_CORE / 2);
+        int hi = Math.min(n, critical + INITIAL_CORE / 2);
+        Solution greedy = reduction.getIncumbent();
+        while (true) {
+            boolean[] core = solveCore(instance, lo, hi);
+            long value = valueSums[lo];
+            for (int k = lo; k < hi; k++) {
+                if (core[k - lo]) {
+                    value += instance.getValue(order[k]);
+                }
+            }
+            Logger.println("Core [" + lo + ", " + hi + "): value " + value);
+            long best = Math.max(value, greedy.getValue());
+
+            // Solutions that differ from the core solution in an outside
+            // item are bounded by the LP bound with that item flipped.
+            // Items fixed by the reduction are proven for the greedy value.
+            int first = lo, last = hi;
+            for (int k = 0; k < n; k++) {
+                if (k >= lo && k < hi) {
+                    continue;
+                }
+                int quantity = k < critical ? 1 : 0;
+                if (reduction.getFixed(order[k]) != quantity
+                        && reduction.upperBound(order[k], 1 - quantity) > best) {
+                    first = Math.min(first, k);
+                    last = Math.max(last, k + 1);
+                }
+            }
+
+            if (first == lo && last == hi) {
+                if (greedy.getValue() > value) {
+                    return new Solution(greedy);
+                }
+                for (int k = 0; k < hi; k++) {
+                    if (k < lo || core[k - lo]) {
+                        optimum.set(order[k], 1);
+                    }
+                }
+                return optimum;
+            }
+
+            // Cover the unfixed items, and grow at least by the core size
+            int size = hi - lo;
+            lo = Math.max(0, Math.min(first, lo - size / 2));
+            hi = Math.min(n, Math.max(last, hi + size / 2));
+        }
+    }
+
+    /**
+     * Solves the items lo..hi-1 of the efficiency order exactly, with the
+     * capacity that is left after packing all items before them
+     *
+     * @param instance The given knapsack instance
+     * @param lo First core position (inclusive)
+     * @param hi Last core position (exclusive)
+     * @return Whether each core item is packed
+     */
+    private boolean[] solveCore(Instance instance, int lo, int hi) {
+        int[] order = instance.getEfficiencyOrder();
+        int capacity = (int) (instance.getCapacity() - instance.getWeightSums()[lo]);
+
+        Instance core = new Instance(hi - lo);
+        for (int k = lo; k < hi; k++) {
+            core.set(k - lo, instance.getValue(order[k]), instance.getWeight(order[k]));
+        }
+        core.setCapacity(capacity);
+
+        Solution solution;
+        if ((long) core.getSize() * (capacity + 1L) <= MAX_DP_CELLS) {
+            solution = new DPSolver().solve(core);
+        } else {
+            solution = new ParallelBnBSolver().solve(core);
+        }
+
+        boolean[] taken = new boolean[hi - lo];
+        for (int k = 0; k < taken.length; k++) {
+            taken[k] = solution.get(k) == 1;
+        }
+        return taken;
+    }
+}
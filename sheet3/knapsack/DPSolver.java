@@ -0,0 +1,190 @@
+package knapsack;
+
+/**
+ * Dynamic programming solver for binary knapsack problems.
+ * Runs in O(n * W) time on a single row of W + 1 values. The chosen
+ * items are reconstructed from a bitset of decisions, or by divide and
+ * conquer (Hirschberg) if the decisions do not fit into memory.
+ */
+public class DPSolver implements SolverInterface<Solution> {
+
+    // Largest array length the JVM allows
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    // Maximum number of bytes the decision table may use
+    private final long maxTableBytes;
+
+    /**
+     * Constructs a solver that allows the decision table
+     * to use a quarter of the maximum heap size
+     */
+    public DPSolver() {
+        this(Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Constructs a solver with the given memory limit
+     *
+     * @param maxTableBytes Maximum size of the decision table in bytes
+     */
+    public DPSolver(long maxTableBytes) {
+        this.maxTableBytes = maxTableBytes;
+    }
+
+    /**
+     * Compute an optimal solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The optimal solution
+     */
+    public Solution solve(Instance instance) {
+        Solution optimum = new Solution(instance);
+        int capacity = instance.getCapacity();
+        if (capacity < 0) {
+            return optimum;
+        }
+        checkRows(capacity);
+
+        boolean[] taken = new boolean[instance.getSize()];
+        if (fitsTable(instance.getSize(), capacity)) {
+            solveWithTable(instance, 0, instance.getSize(), capacity, taken);
+        } else {
+            Logger.println("Decision table too large, using divide and conquer");
+            solveDivided(instance, 0, instance.getSize(), capacity, taken);
+        }
+
+        for (int i = 0; i < taken.length; i++) {
+            if (taken[i]) {
+                optimum.set(i, 1);
+            }
+        }
+
+        return optimum;
+    }
+
+    /**
+     * Checks whether the rows of best values fit into memory. Dividing
+     * keeps two rows of capacity + 1 values at the same time, they may
+     * use half of the maximum heap size.
+     *
+     * @param capacity Knapsack capacity
+     * @throws IllegalArgumentException If the capacity is too large
+     */
+    private static void checkRows(int capacity) {
+        long rowBytes = 2 * 8 * (capacity + 1L);
+        if (capacity + 1L > MAX_ARRAY_LENGTH || rowBytes > Runtime.getRuntime().maxMemory() / 2) {
+            throw new IllegalArgumentException("Capacity " + capacity
+                    + " is too large for dynamic programming, the rows need " + rowBytes + " bytes");
+        }
+    }
+
+    /**
+     * Checks whether a decision table for the given dimensions fits into memory
+     *
+     * @param items Number of items
+     * @param capacity Knapsack capacity
+     */
+    private boolean fitsTable(int items, int capacity) {
+        long words = ((long) items * (capacity + 1L) + 63) / 64;
+        return words < Integer.MAX_VALUE && words * 8 <= maxTableBytes;
+    }
+
+    /**
+     * Solves the items from..to-1 for the given capacity and stores
+     * every improving decision in a bitset to reconstruct the solution
+     *
+     * @param instance The given knapsack instance
+     * @param from First item (inclusive)
+     * @param to Last item (exclusive)
+     * @param capacity Capacity available to these items
+     * @param taken Array that receives the chosen items
+     */
+    private void solveWithTable(Instance instance, int from, int to, int capacity, boolean[] taken) {
+        long width = capacity + 1L;
+        long[] row = new long[capacity + 1];
+        long[] table = new long[(int) (((to - from) * width + 63) / 64)];
+
+        for (int item = from; item < to; item++) {
+            int w = instance.getWeight(item);
+            long c = instance.getValue(item);
+            long offset = (item - from) * width;
+            for (int cap = capacity; cap >= w; cap--) {
+                long candidate = row[cap - w] + c;
+                if (candidate > row[cap]) {
+                    row[cap] = candidate;
+                    long bit = offset + cap;
+                    table[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        // Walk the decisions backwards starting from the full capacity
+        int cap = capacity;
+        for (int item = to - 1; item >= from; item--) {
+            long bit = (item - from) * width + cap;
+            if ((table[(int) (bit >>> 6)] & (1L << bit)) != 0) {
+                taken[item] = true;
+                cap -= instance.getWeight(item);
+            }
+        }
+    }
+
+    /**
+     * Solves the items from..to-1 by computing the best values of both
+     * halves for every capacity, splitting the capacity at the best point
+     * and recursing into both halves until their tables fit into memory
+     *
+     * @param instance The given knapsack instance
+     * @param from First item (inclusive)
+     * @param to Last item (exclusive)
+     * @param capacity Capacity available to these items
+     * @param taken Array that receives the chosen items
+     */
+    private void solveDivided(Instance instance, int from, int to, int capacity, boolean[] taken) {
+        if (to - from <= 1 || fitsTable(to - from, capacity)) {
+            solveWithTable(instance, from, to, capacity, taken);
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        long[] left = bestValues(instance, from, mid, capacity);
+        long[] right = bestValues(instance, mid, to, capacity);
+
+        int split = 0;
+        long best = -1;
+        for (int cap = 0; cap <= capacity; cap++) {
+            if (left[cap] + right[capacity - cap] > best) {
+                best = left[cap] + right[capacity - cap];
+                split = cap;
+            }
+        }
+        left = right = null;
+
+        solveDivided(instance, from, mid, split, taken);
+        solveDivided(instance, mid, to, capacity - split, taken);
+    }
+
+    /**
+     * Computes the best value of the items from..to-1 for every capacity
+     *
+     * @param instance The given knapsack instance
+     * @param from First item (inclusive)
+     * @param to Last item (exclusive)
+     * @param capacity Maximum capacity
+     * @return Row of best values indexed by capacity
+     */
+    private long[] bestValues(Instance instance, int from, int to, int capacity) {
+        long[] row = new long[capacity + 1];
+        for (int item = from; item < to; item++) {
+            int w = instance.getWeight(item);
+            long c = instance.getValue(item);
+            for (int cap = capacity; cap >= w; cap--) {
+                long candidate = row[cap - w] + c;
+                if (candidate > row[cap]) {
+                    row[cap] = candidate;
+                }
+            }
+        }
+        return row;
+    }
+}
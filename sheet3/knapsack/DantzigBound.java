@@ -0,0 +1,52 @@
+package knapsack;
+
+/**
+ * Bound of the LP relaxation (Dantzig): the items are packed in efficiency
+ * order until the critical item does not fit, which then fills the
+ * remaining capacity fractionally
+ */
+public class DantzigBound implements BoundStrategy {
+
+    protected Instance instance;
+    protected int[] order;
+    protected long[] valueSums, weightSums;
+
+    public void prepare(Instance instance) {
+        this.instance = instance;
+        order = instance.getEfficiencyOrder();
+        valueSums = instance.getValueSums();
+        weightSums = instance.getWeightSums();
+    }
+
+    public long upperBound(int position, long value, long weight) {
+        int critical = criticalPosition(position, instance.getCapacity() - weight);
+        long bound = value + valueSums[critical] - valueSums[position];
+        if (critical < order.length) {
+            long rest = instance.getCapacity() - weight - (weightSums[critical] - weightSums[position]);
+            bound += rest * instance.getValue(order[critical]) / instance.getWeight(order[critical]);
+        }
+        return bound;
+    }
+
+    /**
+     * Position of the first item from the given position on that does
+     * not fit into the capacity together with the items before it
+     *
+     * @param position First position to pack
+     * @param capacity Remaining capacity
+     * @return Critical position, n if all items fit
+     */
+    protected int criticalPosition(int position, long capacity) {
+        long limit = weightSums[position] + capacity;
+        int lo = position, hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (weightSums[mid] <= limit) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,68 @@
+package knapsack;
+
+/**
+ * Best solution found by a search so far, together with an upper bound
+ * on the optimum that was proven at the same time
+ *
+ * @param <T> Type of the solution
+ */
+public class Incumbent<T> {
+
+    private final T solution;
+    private final long value;
+    private final long upperBound;
+
+    /**
+     * Constructs an incumbent
+     *
+     * @param solution The solution
+     * @param value Value of the solution
+     * @param upperBound Proven upper bound on the optimum
+     */
+    public Incumbent(T solution, long value, long upperBound) {
+        this.solution = solution;
+        this.value = value;
+        this.upperBound = Math.max(value, upperBound);
+    }
+
+    /**
+     * Get the solution
+     */
+    public T getSolution() {
+        return solution;
+    }
+
+    /**
+     * Get value of the solution
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Get the proven upper bound on the optimum
+     */
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Get the optimality gap relative to the upper bound, 0 if the
+     * solution is proven to be optimal
+     */
+    public double getGap() {
+        return upperBound == 0 ? 0 : (double) (upperBound - value) / upperBound;
+    }
+
+    /**
+     * Check whether the solution is proven to be optimal
+     */
+    public boolean isOptimal() {
+        return value == upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("value %d, bound %d, gap %.4f%%", value, upperBound, 100 * getGap());
+    }
+}
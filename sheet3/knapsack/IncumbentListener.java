@@ -0,0 +1,18 @@
+package knapsack;
+
+/**
+ * Receives every improving solution of an anytime search. The listener
+ * is called from the searching thread, so it should return quickly;
+ * a queue can be attached directly, e.g. {@code queue::offer}.
+ *
+ * @param <T> Type of the solution
+ */
+public interface IncumbentListener<T> {
+
+    /**
+     * Called when the search finds a better solution
+     *
+     * @param incumbent The new solution and the proven upper bound
+     */
+    void improved(Incumbent<T> incumbent);
+}
@@ -13,7 +13,7 @@ public class Item {
 	 * @return
 	 */
 	public double getCW(){
-		return value/weight;
+		return (double) value/weight;
 	}
 
 	/**
@@ -23,7 +23,7 @@ public class Item {
 	public static Comparator<Item> byRatio(){
 		return new Comparator<Item>() {
 			public int compare(Item i1, Item i2) {
-				return Double.compare(i2.getCW(), i2.getCW());
+				return Double.compare(i2.getCW(), i1.getCW());
 			}
 		};
 	}
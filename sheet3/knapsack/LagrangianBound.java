@@ -0,0 +1,42 @@
+package knapsack;
+
+/**
+ * Lagrangian bound with the capacity constraint relaxed by the ratio of
+ * the critical item of the whole instance as multiplier. Every item then
+ * counts with its value minus the multiplier times its weight, so only
+ * the items before the critical item contribute. The bound takes constant
+ * time, but unlike the Dantzig bound the multiplier is not adjusted to the
+ * remaining capacity, so it is weaker deep in the tree.
+ */
+public class LagrangianBound implements BoundStrategy {
+
+    private long capacity;
+    private long[] valueSums, weightSums;
+
+    // Critical position of the whole instance and its ratio
+    private int critical;
+    private double multiplier;
+
+    public void prepare(Instance instance) {
+        capacity = instance.getCapacity();
+        valueSums = instance.getValueSums();
+        weightSums = instance.getWeightSums();
+        int[] order = instance.getEfficiencyOrder();
+
+        critical = 0;
+        while (critical < order.length && weightSums[critical + 1] <= capacity) {
+            critical++;
+        }
+        multiplier = critical < order.length ? instance.getRatio(order[critical]) : 0;
+    }
+
+    public long upperBound(int position, long value, long weight) {
+        double bound = value + multiplier * (capacity - weight);
+        if (position < critical) {
+            bound += (valueSums[critical] - valueSums[position])
+                    - multiplier * (weightSums[critical] - weightSums[position]);
+        }
+        // Rounding errors must not cut off an integer value
+        return (long) Math.floor(bound + 1e-9 * Math.max(1.0, bound));
+    }
+}
@@ -49,9 +49,30 @@ public class Main {
 			// Solver for task a)
 			runSolver(new BnBBinarySolverAlt(), instance);
 
+			// Parallel branch and bound on all cores
+			// runSolver(new ParallelBnBSolver(), instance);
+
+			// Expanding core solver for large instances
+			// runSolver(new CoreSolver(), instance);
+
+			// Fix items by variable reduction before solving
+			// runSolver(new ReducedSolver(new BnBBinarySolverAlt()), instance);
+
 			// Solver for task b) and c)
 			// runSolver(new ChocoSolver(), instance);
 
+			// Choco with objective bounds, efficiency order and restarts
+			// runSolver(new TunedChocoSolver(), instance);
+
+			// Choco, branch and bound and core solver in parallel
+			// runSolver(new PortfolioSolver(), instance);
+
+			// Dynamic programming solver, O(n * W)
+			// runSolver(new DPSolver(), instance);
+
+			// Pareto-optimal states, for huge capacities
+			// runSolver(new ParetoSolver(), instance);
+
 			break;
 		default:
 			throw new IllegalArgumentException(usage);
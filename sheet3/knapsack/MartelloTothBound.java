@@ -0,0 +1,42 @@
+package knapsack;
+
+/**
+ * Bound U2 of Martello and Toth. The critical item is either left out,
+ * and the next item fills the remaining capacity fractionally, or it is
+ * packed, and the item before it is removed fractionally to make room.
+ * The larger of both bounds is never above the Dantzig bound.
+ */
+public class MartelloTothBound extends DantzigBound {
+
+    @Override
+    public long upperBound(int position, long value, long weight) {
+        int critical = criticalPosition(position, instance.getCapacity() - weight);
+        long bound = value + valueSums[critical] - valueSums[position];
+        if (critical == order.length) {
+            return bound;
+        }
+        long rest = instance.getCapacity() - weight - (weightSums[critical] - weightSums[position]);
+
+        // Critical item left out
+        long without = bound;
+        if (critical + 1 < order.length && instance.getWeight(order[critical + 1]) > 0) {
+            int next = order[critical + 1];
+            without += rest * instance.getValue(next) / instance.getWeight(next);
+        }
+
+        // Critical item packed, which needs an earlier undecided item to leave
+        if (critical == position) {
+            return without;
+        }
+        int item = order[critical];
+        int previous = order[critical - 1];
+        if (instance.getWeight(previous) == 0) {
+            return super.upperBound(position, value, weight);
+        }
+        long excess = instance.getWeight(item) - rest;
+        // Rounds the removed value up
+        long with = bound + instance.getValue(item)
+                + Math.floorDiv(-excess * instance.getValue(previous), instance.getWeight(previous));
+        return Math.max(without, with);
+    }
+}
@@ -0,0 +1,267 @@
+package knapsack;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel Branch-and-Bound solver for binary knapsack problems.
+ * Subtrees are searched depth-first by tasks of a ForkJoinPool, and a
+ * task hands off the other branch of a node as a new task whenever
+ * the pool runs out of queued work. All tasks prune against one
+ * global incumbent value.
+ */
+public class ParallelBnBSolver implements SolverInterface<Solution> {
+
+    // Subtrees with fewer free items are never split
+    private static final int MIN_SPLIT_ITEMS = 16;
+
+    // Split only while fewer tasks than this are waiting in the own queue
+    private static final int MAX_SURPLUS_TASKS = 2;
+
+    private final ForkJoinPool pool;
+
+    private Instance instance;
+    private int[] order;
+    private long[] valueSums, weightSums;
+
+    // Value of the best solution found so far, read without locking
+    private final AtomicLong bestValue = new AtomicLong();
+    // Items (in efficiency order) of the best solution, guarded by this
+    private boolean[] bestTaken;
+
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * Constructs a solver that uses the common pool
+     */
+    public ParallelBnBSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a solver that uses the given pool
+     *
+     * @param pool The pool to run the search in
+     */
+    public ParallelBnBSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Compute an optimal solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The optimal solution
+     */
+    public Solution solve(Instance instance) {
+        this.instance = instance;
+        order = instance.getEfficiencyOrder();
+        valueSums = instance.getValueSums();
+        weightSums = instance.getWeightSums();
+        nodes.reset();
+
+        startingSolution();
+
+        long start = System.nanoTime();
+        pool.invoke(new SubtreeTask(0, 0, 0, null));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Logger.println("Nodes: " + nodes.sum() + " (" + (long) (nodes.sum() / seconds) + " per second, "
+                + pool.getParallelism() + " threads)");
+
+        Solution optimum = new Solution(instance);
+        synchronized (this) {
+            for (int k = 0; k < order.length; k++) {
+                if (bestTaken[k]) {
+                    optimum.set(order[k], 1);
+                }
+            }
+        }
+        return optimum;
+    }
+
+    /**
+     * Packs the items greedily in efficiency order to get a first incumbent
+     */
+    private void startingSolution() {
+        boolean[] taken = new boolean[order.length];
+        long rest = instance.getCapacity();
+        long value = 0;
+        for (int k = 0; k < order.length; k++) {
+            int item = order[k];
+            if (instance.getWeight(item) <= rest) {
+                taken[k] = true;
+                rest -= instance.getWeight(item);
+                value += instance.getValue(item);
+            }
+        }
+        bestValue.set(value);
+        bestTaken = taken;
+    }
+
+    /**
+     * Dantzig bound of a node: the items from height h on are packed
+     * in efficiency order and the first one that does not fit is packed
+     * fractionally. The critical item is found by binary search on the
+     * weight prefix sums.
+     *
+     * @param h Number of items decided so far
+     * @param value Value of the items packed so far
+     * @param weight Weight of the items packed so far
+     * @return Upper bound on the value of any completion
+     */
+    private long bound(int h, long value, long weight) {
+        long limit = weightSums[h] + instance.getCapacity() - weight;
+        int lo = h, hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (weightSums[mid] <= limit) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        long bound = value + valueSums[lo] - valueSums[h];
+        if (lo < order.length) {
+            int item = order[lo];
+            bound += (limit - weightSums[lo]) * instance.getValue(item) / instance.getWeight(item);
+        }
+        return bound;
+    }
+
+    /**
+     * Stores a new incumbent if it is better than the current one
+     *
+     * @param value Value of the solution
+     * @param prefix Decisions of the items before the task
+     * @param path Decisions of the task, indexed by height
+     * @param from Height the task started at
+     * @param to Number of items decided
+     */
+    private synchronized void offer(long value, Decision prefix, boolean[] path, int from, int to) {
+        if (value <= bestValue.get()) {
+            return;
+        }
+        boolean[] taken = new boolean[order.length];
+        for (Decision d = prefix; d != null; d = d.prev) {
+            taken[d.item] = true;
+        }
+        System.arraycopy(path, from, taken, from, to - from);
+        bestTaken = taken;
+        bestValue.set(value);
+    }
+
+    /**
+     * Link in the chain of items packed above a task
+     */
+    private static class Decision {
+        final int item;
+        final Decision prev;
+
+        Decision(int item, Decision prev) {
+            this.item = item;
+            this.prev = prev;
+        }
+    }
+
+    /**
+     * Searches the subtree below a node depth-first on a primitive
+     * stack, taking the item first, and forks the branch without
+     * the item as a new task while other workers lack work.
+     */
+    private class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final long startValue, startWeight;
+        private final Decision prefix;
+
+        SubtreeTask(int start, long startValue, long startWeight, Decision prefix) {
+            this.start = start;
+            this.startValue = startValue;
+            this.startWeight = startWeight;
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected void compute() {
+            int n = order.length;
+            // Every level pushes at most two nodes
+            int[] height = new int[2 * (n - start) + 1];
+            long[] value = new long[height.length];
+            long[] weight = new long[height.length];
+            boolean[] took = new boolean[height.length];
+            boolean[] path = new boolean[n];
+            ArrayList<SubtreeTask> forked = new ArrayList<SubtreeTask>();
+            long count = 0;
+
+            int top = 0;
+            height[0] = start;
+            value[0] = startValue;
+            weight[0] = startWeight;
+            top++;
+
+            while (top > 0) {
+                top--;
+                int h = height[top];
+                long v = value[top], w = weight[top];
+                if (h > start) {
+                    path[h - 1] = took[top];
+                }
+                count++;
+
+                if (v > bestValue.get()) {
+                    offer(v, prefix, path, start, h);
+                }
+                if (h == n || bound(h, v, w) <= bestValue.get()) {
+                    continue;
+                }
+
+                int item = order[h];
+                boolean fits = w + instance.getWeight(item) <= instance.getCapacity();
+
+                if (fits && n - h > MIN_SPLIT_ITEMS && getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS) {
+                    SubtreeTask without = new SubtreeTask(h + 1, v, w, chain(path, h));
+                    without.fork();
+                    forked.add(without);
+                } else {
+                    height[top] = h + 1;
+                    value[top] = v;
+                    weight[top] = w;
+                    took[top] = false;
+                    top++;
+                }
+
+                // Pushed last, so the item is taken first
+                if (fits) {
+                    height[top] = h + 1;
+                    value[top] = v + instance.getValue(item);
+                    weight[top] = w + instance.getWeight(item);
+                    took[top] = true;
+                    top++;
+                }
+            }
+            nodes.add(count);
+
+            for (SubtreeTask task : forked) {
+                task.join();
+            }
+        }
+
+        /**
+         * Chain of all items taken above the given height
+         */
+        private Decision chain(boolean[] path, int h) {
+            Decision d = prefix;
+            for (int k = start; k < h; k++) {
+                if (path[k]) {
+                    d = new Decision(k, d);
+                }
+            }
+            return d;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package knapsack;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Exact solver for binary knapsack problems using lists of Pareto-optimal
+ * (weight, value) states (Nemhauser and Ullmann). The work does not depend
+ * on the capacity, so it suits instances with huge capacities as long as
+ * few states are Pareto-optimal. Only the final lists of two halves of the
+ * items are kept; the chosen items are found by splitting the capacity
+ * between both halves and recursing into them.
+ */
+public class ParetoSolver implements SolverInterface<Solution> {
+
+    // Ranges with at most this many items keep a bitmask per state
+    private static final int MASK_ITEMS = 62;
+
+    // Ranges with fewer items are never split into parallel tasks
+    private static final int MIN_PARALLEL_ITEMS = 256;
+
+    private final boolean parallel;
+
+    private Instance instance;
+    private boolean[] taken;
+    private volatile int maxStates;
+
+    /**
+     * Constructs a sequential solver
+     */
+    public ParetoSolver() {
+        this(false);
+    }
+
+    /**
+     * Constructs a solver
+     *
+     * @param parallel Compute the lists of both halves in parallel
+     */
+    public ParetoSolver(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Compute an optimal solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The optimal solution
+     */
+    public Solution solve(Instance instance) {
+        this.instance = instance;
+        taken = new boolean[instance.getSize()];
+        maxStates = 0;
+
+        Solution optimum = new Solution(instance);
+        if (instance.getCapacity() < 0) {
+            return optimum;
+        }
+
+        RangeTask task = new RangeTask(0, instance.getSize(), instance.getCapacity());
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+        Logger.println("States: " + maxStates + " at most");
+
+        for (int i = 0; i < taken.length; i++) {
+            if (taken[i]) {
+                optimum.set(i, 1);
+            }
+        }
+        return optimum;
+    }
+
+    /**
+     * Finds the best subset of the items from..to-1 for the given
+     * capacity and marks its items as taken
+     */
+    private class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final long capacity;
+
+        RangeTask(int from, int to, long capacity) {
+            this.from = from;
+            this.to = to;
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MASK_ITEMS) {
+                // The heaviest state that fits has the largest value
+                StateList list = enumerate(from, to, capacity, true);
+                long mask = list.mask[list.size - 1];
+                for (int i = from; i < to; i++) {
+                    taken[i] = ((mask >>> (i - from)) & 1L) != 0;
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            StateList first, second;
+            if (parallel && to - from >= MIN_PARALLEL_ITEMS) {
+                ForkJoinTask<StateList> task = ForkJoinTask.adapt(() -> enumerate(mid, to, capacity, false)).fork();
+                first = enumerate(from, mid, capacity, false);
+                second = task.join();
+            } else {
+                first = enumerate(from, mid, capacity, false);
+                second = enumerate(mid, to, capacity, false);
+            }
+
+            // Both lists are sorted by weight with strictly increasing values,
+            // so the best partner of a state in the first list is the heaviest
+            // state of the second list that still fits
+            long bestValue = -1, firstWeight = 0, secondWeight = 0;
+            int j = second.size - 1;
+            for (int i = 0; i < first.size && j >= 0; i++) {
+                while (j >= 0 && first.weight[i] + second.weight[j] > capacity) {
+                    j--;
+                }
+                if (j >= 0 && first.value[i] + second.value[j] > bestValue) {
+                    bestValue = first.value[i] + second.value[j];
+                    firstWeight = first.weight[i];
+                    secondWeight = second.weight[j];
+                }
+            }
+            first = second = null;
+
+            // A Pareto-optimal state is the best one up to its weight
+            RangeTask left = new RangeTask(from, mid, firstWeight);
+            RangeTask right = new RangeTask(mid, to, secondWeight);
+            if (parallel && to - from >= MIN_PARALLEL_ITEMS) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+        }
+    }
+
+    /**
+     * Computes all Pareto-optimal subsets of the items from..to-1 that fit
+     * into the capacity. Every item merges the list with a shifted copy of
+     * itself, dropping the states that are dominated by a lighter one.
+     *
+     * @param from First item (inclusive)
+     * @param to Last item (exclusive)
+     * @param capacity Maximum weight of a state
+     * @param masks Whether to store the items of every state
+     * @return List sorted by weight with strictly increasing values
+     */
+    private StateList enumerate(int from, int to, long capacity, boolean masks) {
+        StateList current = new StateList(16, masks);
+        StateList next = new StateList(16, masks);
+        current.add(0, 0, 0);
+
+        for (int item = from; item < to; item++) {
+            long w = instance.getWeight(item);
+            long c = instance.getValue(item);
+            long bit = masks ? 1L << (item - from) : 0;
+
+            next.clear();
+            next.ensureCapacity(2 * current.size);
+            int a = 0, b = 0;
+            while (a < current.size || b < current.size) {
+                // Take the lighter state, or the more valuable one on equal weight
+                boolean takeA;
+                if (b == current.size || current.weight[b] + w > capacity) {
+                    if (a == current.size) {
+                        break;
+                    }
+                    takeA = true;
+                } else if (a == current.size) {
+                    takeA = false;
+                } else {
+                    long wa = current.weight[a], wb = current.weight[b] + w;
+                    takeA = wa < wb || (wa == wb && current.value[a] >= current.value[b] + c);
+                }
+
+                if (takeA) {
+                    next.addIfBetter(current.weight[a], current.value[a], masks ? current.mask[a] : 0);
+                    a++;
+                } else {
+                    next.addIfBetter(current.weight[b] + w, current.value[b] + c, masks ? current.mask[b] | bit : 0);
+                    b++;
+                }
+            }
+
+            StateList tmp = current;
+            current = next;
+            next = tmp;
+        }
+
+        if (current.size > maxStates) {
+            maxStates = current.size;
+        }
+        return current;
+    }
+
+    /**
+     * List of (weight, value, mask) triples in primitive arrays
+     */
+    private static class StateList {
+        long[] weight, value, mask;
+        int size;
+
+        StateList(int capacity, boolean masks) {
+            weight = new long[capacity];
+            value = new long[capacity];
+            mask = masks ? new long[capacity] : null;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > weight.length) {
+                weight = Arrays.copyOf(weight, capacity);
+                value = Arrays.copyOf(value, capacity);
+                if (mask != null) {
+                    mask = Arrays.copyOf(mask, capacity);
+                }
+            }
+        }
+
+        void add(long w, long v, long m) {
+            weight[size] = w;
+            value[size] = v;
+            if (mask != null) {
+                mask[size] = m;
+            }
+            size++;
+        }
+
+        /**
+         * Appends a state unless it is dominated by the last one
+         */
+        void addIfBetter(long w, long v, long m) {
+            if (size == 0 || v > value[size - 1]) {
+                add(w, v, m);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package knapsack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs several solvers on separate threads and returns the best solution
+ * once one of them has proven it optimal or the time is up. The solvers
+ * share their incumbent (see {@link SharedIncumbent}), so a solution found
+ * by one solver prunes the search of the others, and are cancelled through
+ * it when the portfolio returns. The default solvers are all cooperative,
+ * so no thread keeps working after the portfolio returns. Solvers that are
+ * not cooperative, like {@link CoreSolver}, can be given but must be exact;
+ * they can not be cancelled and finish on a daemon thread. Every call
+ * builds new solvers, so a solver that is still finishing from an earlier
+ * call never shares its state with the next one.
+ */
+public class PortfolioSolver implements SolverInterface<Solution> {
+
+    // Default time limit in milliseconds
+    public static final long DEFAULT_TIME_LIMIT = 60000;
+
+    private final long timeLimit;
+    private final List<Supplier<? extends SolverInterface<Solution>>> solvers;
+
+    /**
+     * Constructs a portfolio of the default solvers with the default time limit
+     */
+    public PortfolioSolver() {
+        this(DEFAULT_TIME_LIMIT);
+    }
+
+    /**
+     * Constructs a portfolio of Choco and branch and bound
+     *
+     * @param timeLimit Time limit in milliseconds
+     */
+    public PortfolioSolver(long timeLimit) {
+        this(timeLimit, Arrays.asList(() -> new TunedChocoSolver(timeLimit), BnBBinarySolverAlt::new));
+    }
+
+    /**
+     * Constructs a portfolio of the given solvers
+     *
+     * @param timeLimit Time limit in milliseconds
+     * @param solvers Factories of cooperative or exact solvers
+     */
+    public PortfolioSolver(long timeLimit, List<Supplier<? extends SolverInterface<Solution>>> solvers) {
+        this.timeLimit = timeLimit;
+        this.solvers = new ArrayList<Supplier<? extends SolverInterface<Solution>>>(solvers);
+    }
+
+    /**
+     * Compute a solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The optimal solution, or the best one found in the time limit
+     */
+    public Solution solve(Instance instance) {
+        SharedIncumbent shared = new SharedIncumbent();
+        AtomicInteger running = new AtomicInteger(solvers.size());
+
+        for (Supplier<? extends SolverInterface<Solution>> factory : solvers) {
+            SolverInterface<Solution> solver = factory.get();
+            String name = solver.getClass().getSimpleName();
+            if (solver instanceof CooperativeSolver) {
+                ((CooperativeSolver) solver).setSharedIncumbent(shared);
+            }
+
+            Thread thread = new Thread(() -> {
+                try {
+                    Solution solution = solver.solve(instance);
+                    shared.offer(solution, name);
+                    long upperBound = solver instanceof CooperativeSolver
+                            ? ((CooperativeSolver) solver).getIncumbent().getUpperBound()
+                            : solution.getValue();
+                    if (!shared.isFinished() && shared.prove(upperBound)) {
+                        Logger.println(name + " proved optimality");
+                    }
+                } catch (RuntimeException e) {
+                    Logger.println(name + " failed: " + e);
+                } finally {
+                    if (running.decrementAndGet() == 0) {
+                        shared.finish();
+                    }
+                }
+            }, "portfolio-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try {
+            shared.await(timeLimit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Cancels the solvers that are still running
+        shared.finish();
+
+        Solution best = shared.getSolution();
+        if (best == null) {
+            return new Solution(instance);
+        }
+        Logger.println("Best solution by " + shared.getOrigin()
+                + (shared.isOptimal() ? ", optimal" : ", not proven optimal"));
+        return best;
+    }
+}
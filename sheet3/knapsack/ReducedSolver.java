@@ -0,0 +1,36 @@
+package knapsack;
+
+/**
+ * Runs another solver on the instance that is left after
+ * fixing items by variable reduction
+ */
+public class ReducedSolver implements SolverInterface<Solution> {
+
+    private final SolverInterface<Solution> solver;
+
+    /**
+     * Constructs a solver for the reduced instances
+     *
+     * @param solver Exact solver for the free items
+     */
+    public ReducedSolver(SolverInterface<Solution> solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Compute a solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The solution of the inner solver, mapped back to the instance
+     */
+    public Solution solve(Instance instance) {
+        Reduction reduction = new Reduction(instance);
+        Logger.println("Fixed " + reduction.getFixedCount() + " of " + instance.getSize() + " items");
+
+        Instance reduced = reduction.getReducedInstance();
+        if (reduced == null) {
+            return reduction.expand(null);
+        }
+        return reduction.expand(solver.solve(reduced));
+    }
+}
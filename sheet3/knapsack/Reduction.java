@@ -0,0 +1,270 @@
+package knapsack;
+
+/**
+ * Variable reduction for binary knapsack problems. For every item the
+ * LP bound with the item forced into or out of the knapsack is compared
+ * to a greedy incumbent; if forcing the item against its LP value can
+ * not lead to a better solution, the item is fixed to its LP value.
+ * The remaining free items form a smaller instance for exact solvers.
+ */
+public class Reduction {
+
+    private final Instance instance;
+    private final int[] order;
+    private final long[] valueSums, weightSums;
+
+    // Position of every item in the efficiency order
+    private final int[] position;
+
+    // Position of the critical item (n if all items fit)
+    private final int critical;
+
+    // LP bound of the instance and ratio of the critical item
+    private final double lpValue, criticalRatio;
+
+    // Fixed quantity of every item, -1 if the item is free
+    private final int[] fixed;
+    private long fixedValue, fixedWeight;
+    private int fixedCount;
+
+    // Free items, by index in the reduced instance
+    private final int[] original;
+    private final Instance reduced;
+
+    private final Solution incumbent;
+
+    /**
+     * Reduces the given instance against the greedy solution
+     *
+     * @param instance The given knapsack instance
+     */
+    public Reduction(Instance instance) {
+        this.instance = instance;
+        int n = instance.getSize();
+        order = instance.getEfficiencyOrder();
+        valueSums = instance.getValueSums();
+        weightSums = instance.getWeightSums();
+
+        position = new int[n];
+        for (int k = 0; k < n; k++) {
+            position[order[k]] = k;
+        }
+        critical = criticalPosition(instance.getCapacity());
+        if (critical < n) {
+            criticalRatio = (double) instance.getValue(order[critical]) / instance.getWeight(order[critical]);
+            lpValue = valueSums[critical] + (instance.getCapacity() - weightSums[critical]) * criticalRatio;
+        } else {
+            criticalRatio = 0;
+            lpValue = valueSums[n];
+        }
+
+        // Pack items in efficiency order as long as they fit
+        incumbent = new Solution(instance);
+        long rest = instance.getCapacity();
+        for (int k = 0; k < n; k++) {
+            int item = order[k];
+            if (instance.getWeight(item) <= rest) {
+                incumbent.set(item, 1);
+                rest -= instance.getWeight(item);
+            }
+        }
+
+        fixed = new int[n];
+        int free = 0;
+        for (int k = 0; k < n; k++) {
+            int item = order[k];
+            fixed[item] = -1;
+            if (k >= critical && canFix(item, 0, incumbent.getValue())) {
+                fixed[item] = 0;
+            } else if (k <= critical && canFix(item, 1, incumbent.getValue())) {
+                fixed[item] = 1;
+                fixedValue += instance.getValue(item);
+                fixedWeight += instance.getWeight(item);
+            }
+            if (fixed[item] < 0) {
+                free++;
+            } else {
+                fixedCount++;
+            }
+        }
+
+        original = new int[free];
+        if (free > 0 && fixedWeight <= instance.getCapacity()) {
+            reduced = new Instance(free);
+            for (int item = 0, i = 0; item < n; item++) {
+                if (fixed[item] < 0) {
+                    original[i] = item;
+                    reduced.set(i++, instance.getValue(item), instance.getWeight(item));
+                }
+            }
+            reduced.setCapacity((int) (instance.getCapacity() - fixedWeight));
+        } else {
+            reduced = null;
+        }
+    }
+
+    /**
+     * Checks whether fixing the given item to its LP value loses no
+     * solution that is better than the given value. The bound of Dembo
+     * and Hammer is tried first, it is never below the LP bound with
+     * the item flipped but takes constant time.
+     *
+     * @param item Item index
+     * @param quantity LP value of the item, 0 or 1
+     * @param value Value to beat
+     */
+    private boolean canFix(int item, int quantity, long value) {
+        if (critical < order.length) {
+            double reduced = Math.abs(instance.getValue(item) - instance.getWeight(item) * criticalRatio);
+            if (lpValue - reduced < value + 1 - 1e-9 * Math.max(1.0, lpValue)) {
+                return true;
+            }
+        }
+        return upperBound(item, 1 - quantity) <= value;
+    }
+
+    /**
+     * Get an upper bound on the value of all solutions that
+     * contain the given item with the given quantity
+     *
+     * @param item Item index
+     * @param quantity 0 or 1
+     * @return LP bound, or -1 if no such solution exists
+     */
+    public long upperBound(int item, int quantity) {
+        long capacity = instance.getCapacity();
+        if (quantity == 0) {
+            return lpBound(position[item], capacity);
+        }
+        if (instance.getWeight(item) > capacity) {
+            return -1;
+        }
+        return instance.getValue(item) + lpBound(position[item], capacity - instance.getWeight(item));
+    }
+
+    /**
+     * LP bound of all items except one for the given capacity
+     *
+     * @param excluded Position of the excluded item (-1 for none)
+     * @param capacity Capacity for the other items
+     */
+    private long lpBound(int excluded, long capacity) {
+        long weight = 0, value = 0;
+        if (excluded >= 0) {
+            weight = instance.getWeight(order[excluded]);
+            value = instance.getValue(order[excluded]);
+        }
+
+        // Largest position p such that all items before p
+        // except the excluded one fit into the capacity
+        int lo = 0, hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (weightSums[mid] - (mid > excluded ? weight : 0) <= capacity) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        long bound = valueSums[lo] - (lo > excluded ? value : 0);
+        if (lo < order.length) {
+            long rest = capacity - (weightSums[lo] - (lo > excluded ? weight : 0));
+            int item = order[lo];
+            bound += rest * instance.getValue(item) / instance.getWeight(item);
+        }
+        return bound;
+    }
+
+    /**
+     * Position of the first item in efficiency order that does
+     * not fit into the capacity (n if all items fit)
+     */
+    private int criticalPosition(long capacity) {
+        int lo = 0, hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (weightSums[mid] <= capacity) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Get the instance of the free items, or null if there is nothing
+     * left to solve or the fixed items only allow the incumbent
+     */
+    public Instance getReducedInstance() {
+        return reduced;
+    }
+
+    /**
+     * Get the original index of an item of the reduced instance
+     *
+     * @param item Item index in the reduced instance
+     */
+    public int getOriginalIndex(int item) {
+        return original[item];
+    }
+
+    /**
+     * Get the fixed quantity of an item, -1 if the item is free
+     *
+     * @param item Item index
+     */
+    public int getFixed(int item) {
+        return fixed[item];
+    }
+
+    /**
+     * Get number of fixed items
+     */
+    public int getFixedCount() {
+        return fixedCount;
+    }
+
+    /**
+     * Get position of the critical item in the efficiency order
+     */
+    public int getCritical() {
+        return critical;
+    }
+
+    /**
+     * Get the greedy solution the items were fixed against
+     */
+    public Solution getIncumbent() {
+        return incumbent;
+    }
+
+    /**
+     * Maps a solution of the reduced instance back to the original
+     * instance. The fixed items only guarantee optimality for solutions
+     * better than the incumbent, so the incumbent is returned if it is
+     * at least as good.
+     *
+     * @param solution Solution of the reduced instance, null if there is none
+     * @return Solution of the original instance
+     */
+    public Solution expand(Solution solution) {
+        Solution expanded = new Solution(instance);
+        for (int item = 0; item < fixed.length; item++) {
+            if (fixed[item] == 1) {
+                expanded.set(item, 1);
+            }
+        }
+        if (solution != null) {
+            for (int i = 0; i < original.length; i++) {
+                expanded.set(original[i], solution.get(i));
+            }
+        }
+
+        if (!expanded.isFeasible() || expanded.getValue() <= incumbent.getValue()) {
+            return new Solution(incumbent);
+        }
+        return expanded;
+    }
+}
@@ -0,0 +1,109 @@
+package knapsack;
+
+/**
+ * Best solution shared by solvers that run at the same time. Exact
+ * solvers prune with the shared value, so every solution found by one
+ * solver tightens the search of the others. Once the optimum is proven
+ * or the time is up, the incumbent is finished and the solvers stop.
+ */
+public class SharedIncumbent {
+
+    private volatile long value = -1;
+    private Solution solution;
+    private String origin;
+
+    private volatile boolean finished;
+    private boolean optimal;
+
+    /**
+     * Offers a solution, it replaces the incumbent if it is better
+     *
+     * @param solution The solution, it is copied
+     * @param origin Name of the solver that found it
+     * @return whether the incumbent was improved
+     */
+    public synchronized boolean offer(Solution solution, String origin) {
+        if (!solution.isFeasible() || solution.getValue() <= value) {
+            return false;
+        }
+        this.solution = new Solution(solution);
+        this.origin = origin;
+        value = solution.getValue();
+        return true;
+    }
+
+    /**
+     * Get value of the incumbent, -1 if there is none
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Get a copy of the incumbent, null if there is none
+     */
+    public synchronized Solution getSolution() {
+        return solution == null ? null : new Solution(solution);
+    }
+
+    /**
+     * Get name of the solver that found the incumbent
+     */
+    public synchronized String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Reports an upper bound on the optimum that a solver has proven.
+     * The incumbent is optimal, and finished, if its value reaches it.
+     *
+     * @param upperBound Proven upper bound
+     * @return whether the incumbent is proven to be optimal
+     */
+    public synchronized boolean prove(long upperBound) {
+        if (value >= upperBound) {
+            optimal = true;
+            finish();
+        }
+        return optimal;
+    }
+
+    /**
+     * Check whether the incumbent is proven to be optimal
+     */
+    public synchronized boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Stops all solvers that share the incumbent
+     */
+    public synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * Check whether the solvers have to stop
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Waits until the incumbent is finished or the time is up
+     *
+     * @param millis Maximum time to wait in milliseconds
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public synchronized void await(long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + millis * 1000000;
+        while (!finished) {
+            long rest = (deadline - System.nanoTime()) / 1000000;
+            if (rest <= 0) {
+                return;
+            }
+            wait(rest);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package knapsack;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * CSP-Solver for binary knapsack problems that uses the "knapsack(...)"
+ * constraint like {@link ChocoSolver}, but helps the propagation with
+ * bounds on the objective: only solutions better than the greedy one are
+ * searched, up to the LP bound. Items are branched on in efficiency order
+ * with the item packed first, with Luby restarts and a time limit.
+ */
+public class TunedChocoSolver implements CooperativeSolver {
+
+    // Default time limit in milliseconds
+    public static final long DEFAULT_TIME_LIMIT = 60000;
+
+    // Scale of the Luby sequence, in failures
+    private static final int RESTART_SCALE = 500;
+
+    // Restarts after which the search is not restarted any more
+    private static final int MAX_RESTARTS = 10000;
+
+    private final long timeLimit;
+
+    private SharedIncumbent shared;
+    private Incumbent<Solution> incumbent;
+
+    // Best value known to the search, found or shared
+    private long cutoff;
+
+    /**
+     * Constructs a solver with the default time limit
+     */
+    public TunedChocoSolver() {
+        this(DEFAULT_TIME_LIMIT);
+    }
+
+    /**
+     * Constructs a solver
+     *
+     * @param timeLimit Time limit in milliseconds
+     */
+    public TunedChocoSolver(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Compute a solution for the given instance
+     *
+     * @param instance The given knapsack instance
+     * @return The optimal solution, or the best one found in the time limit
+     */
+    public Solution solve(Instance instance) {
+        int size = instance.getSize();
+        int[] order = instance.getEfficiencyOrder();
+
+        // Pack items in efficiency order as long as they fit
+        Solution greedy = new Solution(instance);
+        for (int item : order) {
+            if (greedy.getWeight() + instance.getWeight(item) <= instance.getCapacity()) {
+                greedy.set(item, 1);
+            }
+        }
+        DantzigBound bound = new DantzigBound();
+        bound.prepare(instance);
+        long lpBound = bound.upperBound(0, 0, 0);
+        // Larger objective values can not be represented by the model
+        long upperBound = Math.min(lpBound, IntVar.MAX_INT_BOUND);
+
+        cutoff = greedy.getValue();
+        if (shared != null) {
+            shared.offer(greedy, getClass().getSimpleName());
+            cutoff = Math.max(cutoff, shared.getValue());
+        }
+        if (cutoff >= upperBound) {
+            incumbent = new Incumbent<Solution>(greedy, greedy.getValue(), Math.max(cutoff, lpBound));
+            return greedy;
+        }
+
+        final Model model = new Model("Tuned Knapsack");
+
+        final IntVar[] occurences = model.intVarArray(size, 0, 1, true);
+        final IntVar weightSum = model.intVar(0, instance.getCapacity());
+        final IntVar valueSum = model.intVar((int) Math.min(cutoff + 1, upperBound), (int) upperBound);
+
+        model.knapsack(occurences, weightSum, valueSum, instance.getWeightArray(), instance.getValueArray()).post();
+
+        // The first dive packs the items like the greedy solution
+        IntVar[] byEfficiency = new IntVar[size];
+        for (int k = 0; k < size; k++) {
+            byEfficiency[k] = occurences[order[k]];
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.inputOrderUBSearch(byEfficiency));
+        solver.setLubyRestart(RESTART_SCALE, new FailCounter(model, RESTART_SCALE), MAX_RESTARTS);
+        // Restarts do not search the same subtrees again
+        solver.setNoGoodRecordingFromRestarts();
+        solver.limitTime(timeLimit);
+
+        if (shared != null) {
+            // Offer every solution, and cut off all values up to the shared one
+            solver.plugMonitor((IMonitorSolution) () -> {
+                cutoff = Math.max(cutoff, valueSum.getValue());
+                shared.offer(toSolution(instance, occurences), getClass().getSimpleName());
+            });
+            solver.plugMonitor(new IMonitorOpenNode() {
+                @Override
+                public void beforeOpenNode() {
+                    if (shared.getValue() > cutoff) {
+                        cutoff = shared.getValue();
+                        solver.getObjectiveManager().updateBestLB((int) Math.min(cutoff, IntVar.MAX_INT_BOUND));
+                    }
+                }
+            });
+            solver.limitSearch(shared::isFinished);
+        }
+
+        final org.chocosolver.solver.Solution solution = solver.findOptimalSolution(valueSum, true);
+        boolean stopped = solver.isStopCriterionMet();
+        Logger.println("Nodes: " + solver.getNodeCount() + ", restarts: " + solver.getRestartCount()
+                + (stopped ? ", stopped" : ""));
+
+        Solution optimum = greedy;
+        if (solution != null) {
+            optimum = new Solution(instance);
+            for (int i = 0; i < size; i++) {
+                optimum.set(i, solution.getIntVal(occurences[i]));
+            }
+        }
+        // A complete search leaves no solution above the cutoff, up to the bound of the model
+        incumbent = new Incumbent<Solution>(optimum, optimum.getValue(),
+                stopped || lpBound > upperBound ? lpBound : cutoff);
+        return optimum;
+    }
+
+    /**
+     * Converts the current assignment of the model into a solution
+     */
+    private Solution toSolution(Instance instance, IntVar[] occurences) {
+        Solution solution = new Solution(instance);
+        for (int i = 0; i < occurences.length; i++) {
+            solution.set(i, occurences[i].getValue());
+        }
+        return solution;
+    }
+
+    /**
+     * Prunes with the given incumbent and offers better solutions to it
+     *
+     * @param shared The incumbent shared with other solvers, null for none
+     */
+    public void setSharedIncumbent(SharedIncumbent shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Get the result of the last run with its proven upper bound
+     */
+    public Incumbent<Solution> getIncumbent() {
+        return incumbent;
+    }
+}
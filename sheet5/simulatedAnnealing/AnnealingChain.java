@@ -0,0 +1,93 @@
+package simulatedAnnealing;
+
+import java.util.SplittableRandom;
+
+/**
+ * One Markov chain of simulated annealing on binary knapsack solutions.
+ * A move flips a random item; it is scored by its change in value and
+ * only applied if the Metropolis criterion accepts it, so a step
+ * allocates nothing. Chains are not thread-safe, but independent chains
+ * can run on separate threads.
+ */
+class AnnealingChain {
+
+    private final SplittableRandom random;
+    private final Solution current;
+    private final Solution best;
+    private final int size;
+
+    // Number of steps done so far
+    private long steps;
+
+    /**
+     * Constructs a chain
+     *
+     * @param initial   initial solution, it is copied
+     * @param random    random stream of this chain
+     */
+    AnnealingChain(Solution initial, SplittableRandom random) {
+        this.random = random;
+        current = new Solution(initial);
+        best = new Solution(initial);
+        size = initial.getInstance().getSize();
+    }
+
+    /**
+     * Flips a random item if the Metropolis criterion accepts it: better
+     * solutions are always accepted, worse ones with probability
+     * exp(delta / temperature)
+     *
+     * @param temperature   current temperature
+     *
+     * @return whether the move was accepted
+     */
+    boolean step(double temperature) {
+        steps++;
+        int item = random.nextInt(size);
+        if (!current.isFlipFeasible(item)) {
+            return false;
+        }
+        int delta = current.getFlipValueDelta(item);
+        if (delta < 0 && random.nextDouble() >= Math.exp(delta / temperature)) {
+            return false;
+        }
+        current.flip(item);
+        if (current.getValue() > best.getValue()) {
+            best.copyFrom(current);
+        }
+        return true;
+    }
+
+    /**
+     * Continues the chain from the given solution
+     *
+     * @param solution  new current solution
+     */
+    void restartFrom(Solution solution) {
+        current.copyFrom(solution);
+        if (solution.getValue() > best.getValue()) {
+            best.copyFrom(solution);
+        }
+    }
+
+    /**
+     * Get the current solution
+     */
+    Solution getCurrent() {
+        return current;
+    }
+
+    /**
+     * Get the best solution of this chain
+     */
+    Solution getBest() {
+        return best;
+    }
+
+    /**
+     * Get the number of steps done so far
+     */
+    long getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,212 @@
+package simulatedAnnealing;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Settings of simulated annealing: stop criterion, initial solution and
+ * cooling schedule. A configuration is read from properties, given as a
+ * file or as a comma-separated list of key=value pairs, so settings can
+ * be changed without recompiling. Temperatures are given in multiples
+ * of the average item value of the instance. Missing keys keep their
+ * defaults:
+ *
+ * <pre>
+ * iterations = 500000      max number of iterations
+ * time       = 2000        max milliseconds
+ * useTime    = false       stop by time or by iteration count and last improvement
+ * initial    = 0           0 = most cost efficient, 1 = lightest, else random items
+ * schedule   = geometric   logarithmic, geometric, lundymees or reheating
+ * constant   = 5           c of the logarithmic schedule
+ * start      = 1           t_0 of the other schedules
+ * alpha      = 0.99999     cooling factor of geometric and reheating
+ * beta       = 0.00001     parameter of Lundy-Mees
+ * patience   = iterations / 20         iterations without improvement before reheating
+ * reheat     = 0.5         fraction of t_0 to reheat to
+ * </pre>
+ *
+ * The configuration only holds a factory of the cooling schedule, every
+ * run creates its own schedule, so runs can share a configuration.
+ */
+public class AnnealingConfig {
+
+    // Defaults of the stop criteria
+    public static final int DEFAULT_MAX_ITERATION = 500000;
+    public static final int DEFAULT_MAX_TIME = 2000;
+
+    // Initial solutions
+    public static final int MOST_EFFICIENT = 0;
+    public static final int LIGHTEST = 1;
+    public static final int RANDOM = 2;
+
+    private int maxIteration = DEFAULT_MAX_ITERATION;
+    private long maxTime = DEFAULT_MAX_TIME;
+    private boolean useTime = false;
+    private int initial = MOST_EFFICIENT;
+    private Function<Instance, CoolingSchedule> schedule =
+            instance -> new GeometricSchedule(averageValue(instance), 0.99999);
+
+    /**
+     * Constructor for the default configuration
+     */
+    public AnnealingConfig() {
+    }
+
+    /**
+     * Reads a configuration from a properties file, or from key=value
+     * pairs separated by commas if the argument contains a '='
+     *
+     * @param source    file name or key=value pairs
+     *
+     * @return configuration
+     */
+    public static AnnealingConfig parse(String source) throws IOException {
+        Properties properties = new Properties();
+        if (source.contains("=")) {
+            for (String pair : source.split(",")) {
+                String[] entry = pair.split("=", 2);
+                if (entry.length != 2) {
+                    throw new IllegalArgumentException("Not a key=value pair: " + pair);
+                }
+                properties.setProperty(entry[0].trim(), entry[1].trim());
+            }
+        } else {
+            try (InputStream in = new FileInputStream(source)) {
+                properties.load(in);
+            }
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Constructs a configuration from properties, see the class comment for the keys
+     *
+     * @param properties    settings
+     *
+     * @return configuration
+     */
+    public static AnnealingConfig fromProperties(Properties properties) {
+        AnnealingConfig config = new AnnealingConfig();
+        config.maxIteration = Integer.parseInt(properties.getProperty("iterations", "" + DEFAULT_MAX_ITERATION));
+        config.maxTime = Long.parseLong(properties.getProperty("time", "" + DEFAULT_MAX_TIME));
+        config.useTime = Boolean.parseBoolean(properties.getProperty("useTime", "false"));
+        config.initial = Integer.parseInt(properties.getProperty("initial", "" + MOST_EFFICIENT));
+
+        double start = Double.parseDouble(properties.getProperty("start", "1"));
+        double alpha = Double.parseDouble(properties.getProperty("alpha", "0.99999"));
+        String name = properties.getProperty("schedule", "geometric").toLowerCase();
+        switch (name) {
+            case "logarithmic":
+                double constant = Double.parseDouble(properties.getProperty("constant", "5"));
+                config.schedule = instance -> new LogarithmicSchedule(constant * averageValue(instance));
+                break;
+            case "geometric":
+                config.schedule = instance -> new GeometricSchedule(start * averageValue(instance), alpha);
+                break;
+            case "lundymees":
+                // beta is scaled inversely, so the schedule is the same in multiples of the average value
+                double beta = Double.parseDouble(properties.getProperty("beta", "0.00001"));
+                config.schedule = instance -> new LundyMeesSchedule(start * averageValue(instance),
+                        beta / averageValue(instance));
+                break;
+            case "reheating":
+                int patience = Integer.parseInt(properties.getProperty("patience", "" + config.maxIteration / 20));
+                double reheat = Double.parseDouble(properties.getProperty("reheat", "0.5"));
+                config.schedule = instance -> new ReheatingSchedule(start * averageValue(instance), alpha,
+                        patience, reheat);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cooling schedule: " + name);
+        }
+        return config;
+    }
+
+    /**
+     * Get the max number of iterations
+     */
+    public int getMaxIteration() {
+        return maxIteration;
+    }
+
+    /**
+     * Set the max number of iterations
+     */
+    public void setMaxIteration(int maxIteration) {
+        this.maxIteration = maxIteration;
+    }
+
+    /**
+     * Get the max milliseconds
+     */
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Set the max milliseconds
+     */
+    public void setMaxTime(long maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * Whether to use time as a stop criterion or to look
+     * at iteration count and last improvement
+     */
+    public boolean isUseTime() {
+        return useTime;
+    }
+
+    /**
+     * Set whether to use time as a stop criterion
+     */
+    public void setUseTime(boolean useTime) {
+        this.useTime = useTime;
+    }
+
+    /**
+     * Get the initial solution strategy
+     */
+    public int getInitial() {
+        return initial;
+    }
+
+    /**
+     * Set the initial solution strategy
+     */
+    public void setInitial(int initial) {
+        this.initial = initial;
+    }
+
+    /**
+     * Creates a new cooling schedule for a run on the given instance
+     *
+     * @param instance  problem instance
+     */
+    public CoolingSchedule createSchedule(Instance instance) {
+        return schedule.apply(instance);
+    }
+
+    /**
+     * Set the factory of the cooling schedule
+     */
+    public void setSchedule(Function<Instance, CoolingSchedule> schedule) {
+        this.schedule = schedule;
+    }
+
+    /**
+     * Average value of the items of an instance, at least 1
+     *
+     * @param instance  problem instance
+     */
+    static double averageValue(Instance instance) {
+        double sum = 0;
+        for (int i = 0; i < instance.getSize(); i++) {
+            sum += instance.getValue(i);
+        }
+        return Math.max(1.0, sum / Math.max(1, instance.getSize()));
+    }
+}
@@ -0,0 +1,27 @@
+package simulatedAnnealing;
+
+/**
+ * Cooling schedule of simulated annealing. The temperature is asked for
+ * once in every iteration, with consecutive iteration counts starting
+ * at 0, so a schedule may keep its temperature as state. Every run uses
+ * a new schedule (see {@link AnnealingConfig#createSchedule(Instance)}).
+ */
+public interface CoolingSchedule {
+
+    /**
+     * Computes the temperature (the denominator of the bound)
+     *
+     * @param iter      current iteration count
+     *
+     * @return temperature of this iteration
+     */
+    double temperature(int iter);
+
+    /**
+     * Called whenever the best solution improved
+     *
+     * @param iter      current iteration count
+     */
+    default void improved(int iter) {
+    }
+}
@@ -0,0 +1,35 @@
+package simulatedAnnealing;
+
+/**
+ * Cooling schedule t_0 * alpha^i
+ */
+public class GeometricSchedule implements CoolingSchedule {
+
+    protected final double start, alpha;
+
+    // Temperature of the next iteration
+    protected double current;
+
+    /**
+     * Constructor
+     *
+     * @param start     value for t_0
+     * @param alpha     cooling factor per iteration, below 1
+     */
+    public GeometricSchedule(double start, double alpha) {
+        this.start = start;
+        this.alpha = alpha;
+        current = start;
+    }
+
+    public double temperature(int iter) {
+        double t = current;
+        current *= alpha;
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        return start + " * " + alpha + "^i";
+    }
+}
@@ -0,0 +1,27 @@
+package simulatedAnnealing;
+
+/**
+ * Cooling schedule c / log(1 + i)
+ */
+public class LogarithmicSchedule implements CoolingSchedule {
+
+    private final double constant;
+
+    /**
+     * Constructor
+     *
+     * @param constant  value for c
+     */
+    public LogarithmicSchedule(double constant) {
+        this.constant = constant;
+    }
+
+    public double temperature(int iter) {
+        return constant / Math.log(1 + iter);
+    }
+
+    @Override
+    public String toString() {
+        return constant + " / log(1 + i)";
+    }
+}
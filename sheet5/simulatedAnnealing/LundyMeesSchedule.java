@@ -0,0 +1,35 @@
+package simulatedAnnealing;
+
+/**
+ * Cooling schedule of Lundy and Mees, t_i+1 = t_i / (1 + beta * t_i)
+ */
+public class LundyMeesSchedule implements CoolingSchedule {
+
+    private final double start, beta;
+
+    // Temperature of the next iteration
+    private double current;
+
+    /**
+     * Constructor
+     *
+     * @param start     value for t_0
+     * @param beta      cooling parameter, small and positive
+     */
+    public LundyMeesSchedule(double start, double beta) {
+        this.start = start;
+        this.beta = beta;
+        current = start;
+    }
+
+    public double temperature(int iter) {
+        double t = current;
+        current = t / (1 + beta * t);
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        return "Lundy-Mees, t_0 = " + start + ", beta = " + beta;
+    }
+}
@@ -1,9 +1,11 @@
 package simulatedAnnealing;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
-	private static final String usage = "Usage: [-v|--verbose] <filename>";
+	private static final String usage = "Usage: [-v|--verbose] [-r <runs>] [-c <config file or key=value,...>]... <filename>";
 
 	public static <SolutionType extends GenericSolution<?>> void runSolver(SolverInterface<SolutionType> solver, Instance instance, boolean binary) {
 		System.out.println("=== " + solver.getClass().getName() + " ===");
@@ -29,29 +31,50 @@ public class Main {
 	}
 
 	public static void main(String[] args) throws IOException {
-		switch (args.length) {
-		case 2:
-			if (args[0].equals("-v")
-			 || args[0].equals("--verbose")) {
+		List<String> configs = new ArrayList<String>();
+		int runs = 1;
+		int i = 0;
+		for (; i < args.length - 1; i++) {
+			if (args[i].equals("-v")
+			 || args[i].equals("--verbose")) {
 				Logger.enable();
+			} else if (args[i].equals("-r")) {
+				runs = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-c")) {
+				configs.add(args[++i]);
 			} else {
 				throw new IllegalArgumentException(usage);
 			}
-		case 1:
-			Instance instance = Reader.readInstance(args[args.length - 1]);
-
-			System.out.println("###############################################");
-			System.out.println("# Instance file: " + args[0]);
-			System.out.println("# Number of items: " + instance.getSize());
-			System.out.println("# Capacity of knapsack: " + instance.getCapacity());
-			System.out.println("###############################################");
-			System.out.println();
-			
-			runSolver(new SimulatedAnnealing(), instance);
-
-			break;
-		default:
+		}
+		if (i != args.length - 1) {
 			throw new IllegalArgumentException(usage);
 		}
+
+		Instance instance = Reader.readInstance(args[i]);
+
+		System.out.println("###############################################");
+		System.out.println("# Instance file: " + args[i]);
+		System.out.println("# Number of items: " + instance.getSize());
+		System.out.println("# Capacity of knapsack: " + instance.getCapacity());
+		System.out.println("###############################################");
+		System.out.println();
+
+		if (configs.isEmpty()) {
+			for (int run = 0; run < runs; run++) {
+				runSolver(new SimulatedAnnealing(), instance);
+			}
+			// runSolver(new ParallelAnnealing(), instance);
+			// runSolver(new ParallelTempering(), instance);
+			return;
+		}
+
+		// All configurations run in this JVM, so later runs use code compiled by the JIT
+		for (String config : configs) {
+			System.out.println("# Configuration: " + config);
+			SimulatedAnnealing solver = new SimulatedAnnealing(AnnealingConfig.parse(config));
+			for (int run = 0; run < runs; run++) {
+				runSolver(solver, instance);
+			}
+		}
 	}
-}
+}
\ No newline at end of file
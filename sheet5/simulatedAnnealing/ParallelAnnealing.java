@@ -0,0 +1,149 @@
+package simulatedAnnealing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulated annealing with several independent chains on a thread pool.
+ * Every chain has its own random stream, split from one seed, and its own
+ * temperature, from hot to cold, which cools down geometrically over the
+ * time budget. After every epoch the chains are synchronized: the weaker
+ * half continues from the best solution found by any chain.
+ */
+public class ParallelAnnealing implements SolverInterface<Solution> {
+
+    // Steps of every chain between two exchanges
+    public static final int DEFAULT_EPOCH = 20000;
+
+    // Ratio between the temperatures of the hottest and the coldest chain
+    private static final double TEMPERATURE_RANGE = 10.0;
+
+    // Ratio between the final and the initial temperature of a chain
+    private static final double COOLING = 0.001;
+
+    private final int chains;
+    private final int epoch;
+    private final long maxTime;
+    private final long seed;
+
+    /**
+     * Constructor, one chain per core for AnnealingConfig.DEFAULT_MAX_TIME milliseconds
+     */
+    public ParallelAnnealing() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_EPOCH, AnnealingConfig.DEFAULT_MAX_TIME, System.nanoTime());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param chains    number of chains
+     * @param epoch     steps of every chain between two exchanges
+     * @param maxTime   wall-clock budget in milliseconds
+     * @param seed      seed of the random streams
+     */
+    public ParallelAnnealing(int chains, int epoch, long maxTime, long seed) {
+        this.chains = chains;
+        this.epoch = epoch;
+        this.maxTime = maxTime;
+        this.seed = seed;
+    }
+
+    /**
+     * Solves a binary knapsack instance using parallel simulated annealing
+     *
+     * @param instance  Problem instance
+     */
+    public Solution solve(Instance instance) {
+        // All chains start from the items by cost per weight
+        Solution initial = new Solution(instance);
+        for (int item : instance.getEfficiencyOrder()) {
+            initial.set(item, 1);
+        }
+        Solution best = new Solution(initial);
+
+        // Losing an average item is accepted with probability 1/e at the
+        // start of the hottest chain
+        double temperature = 0;
+        for (int i = 0; i < instance.getSize(); i++) {
+            temperature += instance.getValue(i);
+        }
+        temperature = temperature / Math.max(1, instance.getSize());
+
+        // Fraction of the time budget used before the current epoch
+        double[] progress = new double[1];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        AnnealingChain[] chain = new AnnealingChain[chains];
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int k = 0; k < chains; k++) {
+            AnnealingChain c = chain[k] = new AnnealingChain(initial, random.split());
+            double scale = temperature * Math.pow(TEMPERATURE_RANGE, -(double) k / Math.max(1, chains - 1));
+            tasks.add(() -> {
+                double t = scale * Math.pow(COOLING, progress[0]);
+                for (int i = 0; i < epoch; i++) {
+                    c.step(t);
+                }
+                return null;
+            });
+        }
+
+        int threads = Math.min(chains, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int epochs = 0;
+        long start = System.currentTimeMillis();
+        try {
+            while (System.currentTimeMillis() - start < maxTime) {
+                progress[0] = (double) (System.currentTimeMillis() - start) / maxTime;
+                for (Future<Void> future : pool.invokeAll(tasks)) {
+                    future.get();
+                }
+                epochs++;
+                exchange(chain, best);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long steps = 0;
+        for (AnnealingChain c : chain) {
+            steps += c.getSteps();
+        }
+        long time = Math.max(1, System.currentTimeMillis() - start);
+        Logger.println(chains + " chains on " + threads + " threads, " + epochs + " epochs, "
+                + steps * 1000L / time + " steps per second");
+        return best;
+    }
+
+    /**
+     * Updates the global best solution and restarts the weaker half
+     * of the chains from it
+     *
+     * @param chain     all chains
+     * @param best      global best solution
+     */
+    private void exchange(AnnealingChain[] chain, Solution best) {
+        Integer[] rank = new Integer[chain.length];
+        for (int k = 0; k < chain.length; k++) {
+            rank[k] = k;
+        }
+        Arrays.sort(rank, (a, b) -> chain[b].getBest().getValue() - chain[a].getBest().getValue());
+
+        if (chain[rank[0]].getBest().getValue() > best.getValue()) {
+            best.copyFrom(chain[rank[0]].getBest());
+        }
+        for (int k = (chain.length + 1) / 2; k < chain.length; k++) {
+            chain[rank[k]].restartFrom(best);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package simulatedAnnealing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel tempering (replica exchange) for binary knapsack problems.
+ * Every replica runs at its own fixed temperature of a geometric ladder,
+ * the replicas run on a thread pool. After every round of steps,
+ * replicas at adjacent temperatures swap their temperatures with the
+ * Metropolis criterion, so good solutions found by hot replicas move down
+ * to the cold ones, and stuck cold replicas are heated up again.
+ */
+public class ParallelTempering implements SolverInterface<Solution> {
+
+    // Steps of every replica between two swap phases
+    public static final int DEFAULT_ROUND = 10000;
+
+    // Replicas if there are fewer cores
+    private static final int MIN_REPLICAS = 4;
+
+    // Ratio between the highest and the lowest temperature of the ladder
+    private static final double TEMPERATURE_RANGE = 100.0;
+
+    private final int replicas;
+    private final int round;
+    private final long maxTime;
+    private final long seed;
+
+    // Swap attempts and accepted swaps of every pair of adjacent temperatures
+    private long[] attempts, swaps;
+
+    /**
+     * Constructor, one replica per core for AnnealingConfig.DEFAULT_MAX_TIME milliseconds
+     */
+    public ParallelTempering() {
+        this(Math.max(MIN_REPLICAS, Runtime.getRuntime().availableProcessors()), DEFAULT_ROUND,
+                AnnealingConfig.DEFAULT_MAX_TIME, System.nanoTime());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param replicas  number of replicas, at least 2
+     * @param round     steps of every replica between two swap phases
+     * @param maxTime   wall-clock budget in milliseconds
+     * @param seed      seed of the random streams
+     */
+    public ParallelTempering(int replicas, int round, long maxTime, long seed) {
+        if (replicas < 2) {
+            throw new IllegalArgumentException("at least 2 replicas are needed");
+        }
+        this.replicas = replicas;
+        this.round = round;
+        this.maxTime = maxTime;
+        this.seed = seed;
+    }
+
+    /**
+     * Solves a binary knapsack instance using parallel tempering
+     *
+     * @param instance  Problem instance
+     */
+    public Solution solve(Instance instance) {
+        // All replicas start from the items by cost per weight
+        Solution initial = new Solution(instance);
+        for (int item : instance.getEfficiencyOrder()) {
+            initial.set(item, 1);
+        }
+
+        double[] temperature = ladder(instance);
+        attempts = new long[replicas - 1];
+        swaps = new long[replicas - 1];
+
+        // Replica at every temperature, the temperatures are swapped
+        // instead of the solutions
+        SplittableRandom random = new SplittableRandom(seed);
+        AnnealingChain[] replica = new AnnealingChain[replicas];
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int k = 0; k < replicas; k++) {
+            replica[k] = new AnnealingChain(initial, random.split());
+            int slot = k;
+            tasks.add(() -> {
+                AnnealingChain c = replica[slot];
+                double t = temperature[slot];
+                for (int i = 0; i < round; i++) {
+                    c.step(t);
+                }
+                return null;
+            });
+        }
+
+        int threads = Math.min(replicas, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int rounds = 0;
+        long start = System.currentTimeMillis();
+        try {
+            while (System.currentTimeMillis() - start < maxTime) {
+                for (Future<Void> future : pool.invokeAll(tasks)) {
+                    future.get();
+                }
+                // Even and odd pairs alternate, so every pair is tried
+                exchange(replica, temperature, rounds & 1, random);
+                rounds++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Solution best = initial;
+        long steps = 0;
+        for (AnnealingChain c : replica) {
+            if (c.getBest().getValue() > best.getValue()) {
+                best = c.getBest();
+            }
+            steps += c.getSteps();
+        }
+
+        long time = Math.max(1, System.currentTimeMillis() - start);
+        Logger.println(replicas + " replicas on " + threads + " threads, " + rounds + " rounds, "
+                + steps * 1000L / time + " steps per second");
+        for (int k = 0; k < replicas - 1; k++) {
+            Logger.println(String.format("Swap T=%.2f <-> T=%.2f: %d of %d accepted (%.1f%%)",
+                    temperature[k], temperature[k + 1], swaps[k], attempts[k], 100.0 * getSwapRate(k)));
+        }
+        return new Solution(best);
+    }
+
+    /**
+     * Geometric ladder of temperatures, from hot to cold. Losing an
+     * average item is accepted with probability 1/2 at the highest
+     * temperature.
+     *
+     * @param instance  Problem instance
+     */
+    private double[] ladder(Instance instance) {
+        double highest = 0;
+        for (int i = 0; i < instance.getSize(); i++) {
+            highest += instance.getValue(i);
+        }
+        highest = highest / Math.max(1, instance.getSize()) / Math.log(2);
+
+        double[] temperature = new double[replicas];
+        for (int k = 0; k < replicas; k++) {
+            temperature[k] = highest * Math.pow(TEMPERATURE_RANGE, -(double) k / (replicas - 1));
+        }
+        return temperature;
+    }
+
+    /**
+     * Tries to swap the replicas of every second pair of adjacent
+     * temperatures. A pair is swapped with probability
+     * min(1, exp((v_k - v_k+1) (1/T_k+1 - 1/T_k))), where v is the value
+     * of the current solution of a replica.
+     *
+     * @param replica       replica at every temperature
+     * @param temperature   temperature ladder
+     * @param first         first pair to try, 0 or 1
+     * @param random        random stream of the swaps
+     */
+    private void exchange(AnnealingChain[] replica, double[] temperature, int first, SplittableRandom random) {
+        for (int k = first; k < replicas - 1; k += 2) {
+            attempts[k]++;
+            double delta = (replica[k].getCurrent().getValue() - replica[k + 1].getCurrent().getValue())
+                    * (1 / temperature[k + 1] - 1 / temperature[k]);
+            if (delta >= 0 || random.nextDouble() < Math.exp(delta)) {
+                AnnealingChain tmp = replica[k];
+                replica[k] = replica[k + 1];
+                replica[k + 1] = tmp;
+                swaps[k]++;
+            }
+        }
+    }
+
+    /**
+     * Get the fraction of accepted swaps between the temperatures k and k+1
+     * of the last run, the temperatures are ordered from hot to cold
+     *
+     * @param k     index of the hotter temperature
+     */
+    public double getSwapRate(int k) {
+        return attempts[k] == 0 ? 0 : (double) swaps[k] / attempts[k];
+    }
+}
@@ -0,0 +1,48 @@
+package simulatedAnnealing;
+
+/**
+ * Geometric cooling with adaptive reheating: whenever the best solution
+ * did not improve for a number of iterations, the temperature is raised
+ * to a fraction of t_0 again.
+ */
+public class ReheatingSchedule extends GeometricSchedule {
+
+    private final int patience;
+    private final double reheat;
+
+    // Iteration of the last improvement or reheat
+    private int last;
+
+    /**
+     * Constructor
+     *
+     * @param start     value for t_0
+     * @param alpha     cooling factor per iteration, below 1
+     * @param patience  iterations without improvement before reheating
+     * @param reheat    fraction of t_0 to reheat to
+     */
+    public ReheatingSchedule(double start, double alpha, int patience, double reheat) {
+        super(start, alpha);
+        this.patience = patience;
+        this.reheat = reheat;
+    }
+
+    @Override
+    public double temperature(int iter) {
+        if (iter - last >= patience) {
+            current = Math.max(current, reheat * start);
+            last = iter;
+        }
+        return super.temperature(iter);
+    }
+
+    @Override
+    public void improved(int iter) {
+        last = iter;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + ", reheat to " + reheat + " * t_0 after " + patience + " iterations";
+    }
+}
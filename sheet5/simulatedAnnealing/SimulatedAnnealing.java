@@ -15,28 +15,23 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
     // Random number generator
     private Random generator;
 
-    ///////////////////////////////
-    //  Algorithm Configuration  //
-    ///////////////////////////////
+    // Algorithm configuration
+    private final AnnealingConfig config;
 
-    // Max number of iterations and max milliseconds 
-    private static final int MAX_ITERATION = 500000;
-    private static final int MAX_TIME = 2000;
-    
-    // Which cooling function and which initial solution to use
-    private static final byte DENOM = 0;
-    private static final byte INITIAL = 0;
-
-    private static final int CONSTANT = MAX_ITERATION / 2;
-    
-    // Whether to use time as a stop criterion or to look
-    // at iteration count and last improvement
-    private static final boolean USE_TIME = false;
+    /**
+     * Constructor with the default configuration, that initializes a new random generator
+     */
+    SimulatedAnnealing() {
+        this(new AnnealingConfig());
+    }
 
     /**
      * Constructor, that initializes a new random generator
+     *
+     * @param config    algorithm configuration
      */
-    SimulatedAnnealing() {
+    SimulatedAnnealing(AnnealingConfig config) {
+        this.config = config;
         generator = new Random(System.currentTimeMillis());
     }
 
@@ -46,19 +41,30 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
      * @param instance  Problem instance
      */
     public Solution solve(Instance instance) {
-        printSettings();
+        CoolingSchedule schedule = config.createSchedule(instance);
+        printSettings(schedule);
 
         generateInitialSolution(instance);
 
         int lastImprovement = 0, size = instance.getSize();
         long start = System.currentTimeMillis();
 
-        for (int index = 0; !stop(index, lastImprovement, start); index++) {
-            Solution next = getNeighbourSolution(size);
-            if (generator.nextDouble() < Math.min(1.0, bound(index, next))) {
-                currentSol = next;
+        int index;
+        for (index = 0; !stop(index, lastImprovement, start); index++) {
+            // Choose a random item to take/leave, the neighbour is only scored
+            int item = generator.nextInt(size);
+            // The schedule advances in every iteration, whether the bound is needed or not
+            double temperature = schedule.temperature(index);
+            if (!currentSol.isFlipFeasible(item)) {
+                continue;
+            }
+            // Better neighbours are always accepted, worse ones with the bound as probability
+            int delta = currentSol.getFlipValueDelta(item);
+            if (delta >= 0 || generator.nextDouble() < bound(temperature, delta)) {
+                currentSol.flip(item);
                 if (currentSol.getValue() > bestSol.getValue()) {
-                    bestSol = new Solution(currentSol);
+                    bestSol.copyFrom(currentSol);
+                    schedule.improved(index);
                     lastImprovement = 0;
                 } else {
                     lastImprovement++;
@@ -66,6 +72,8 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
             }
         }
 
+        long time = Math.max(1, System.currentTimeMillis() - start);
+        Logger.println("Iterations: " + index + " (" + index * 1000L / time + " per second)");
         return bestSol;
     }
 
@@ -79,27 +87,10 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
      * @return wether to stop
      */
     private boolean stop(int iter, int lastImprovement, long start) {
-        if (USE_TIME)
-            return System.currentTimeMillis() - start >= MAX_TIME;
+        if (config.isUseTime())
+            return System.currentTimeMillis() - start >= config.getMaxTime();
         else
-            return iter >= MAX_ITERATION || lastImprovement >= MAX_ITERATION / 5;
-    }
-
-    /**
-     * Returns a new solution from the neighbourhood of the current solution
-     * by randomly taking or leaving one item
-     *
-     * @param size              instance size
-     *
-     * @return new solution
-     */
-    private Solution getNeighbourSolution(int size) {
-        Solution solution = new Solution(currentSol);
-        // Choose a random item to take/leave
-        int index = generator.nextInt(size);
-        solution.set(index, Math.abs(currentSol.get(index) - 1));
-
-        return solution;
+            return iter >= config.getMaxIteration() || lastImprovement >= config.getMaxIteration() / 5;
     }
 
     /**
@@ -109,9 +100,9 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
      */
     private void generateInitialSolution(Instance instance) {
         currentSol = new Solution(instance);
-        switch (INITIAL) {
-            case 0: mostValuePerWeightFirst(instance);
-            case 1: leastWeightFirst(instance);
+        switch (config.getInitial()) {
+            case AnnealingConfig.MOST_EFFICIENT: mostValuePerWeightFirst(instance); break;
+            case AnnealingConfig.LIGHTEST: leastWeightFirst(instance); break;
             default: randomConfiguration(instance);
         }
         // Set current best solution to initial solution
@@ -119,26 +110,13 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
     }
 
     /**
-     * Sorts items of the instance by cost per weight
+     * Takes items of the instance by cost per weight
      *
      * @param instance  problem instance
      */
     private void mostValuePerWeightFirst(Instance instance) {
-        ArrayList<Pair> order = new ArrayList<Pair>();
-
-        for (int i = 0; i < instance.getSize(); i++) {
-            order.add(i, new Pair(i, instance.getValue(i), instance.getWeight(i)));
-        }
-
-        // Sort items according to c_i/w_i >= c_i+1/w_i+1
-        order.sort(new Comparator<Pair>() {
-            @Override
-            public int compare(Pair o1, Pair o2) {
-                return o1.compareTo(o2) * -1;
-            }
-        });
-
-        setSolution(order);
+        // Items according to c_i/w_i >= c_i+1/w_i+1
+        setSolution(instance.getEfficiencyOrder());
     }
 
     /**
@@ -161,7 +139,11 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
             }
         });
 
-        setSolution(order);
+        int[] items = new int[order.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = order.get(i).index;
+        }
+        setSolution(items);
     }
 
     /**
@@ -178,74 +160,51 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
     /**
      * Sets a solution according to order
      *
-     * @param order  List of sorted (index, value) tuples
+     * @param order  Sorted item indices
      */
-    private void setSolution(ArrayList<Pair> order) {
-        for (int i = 0; i < order.size(); i++) {
-            currentSol.set(order.get(i).index, 1);
+    private void setSolution(int[] order) {
+        for (int i = 0; i < order.length; i++) {
+            currentSol.set(order[i], 1);
         }
     }
 
     /**
-     * Computes the bound for taking an item
-     *
-     * @param iter      current iteration count
-     * @param next      solution to test
-     *
-     * @return computed value
-     */
-    private double bound(int iter, Solution next) {
-        return Math.exp((-1.0 * (next.getValue() - bestSol.getValue())) / denominator(iter));
-    }
-
-    /**
-     * Computes the denominator for the bound (annealing)
+     * Computes the bound for taking an item (Metropolis criterion)
      *
-     * @param iter      current iteration count
+     * @param temperature   current temperature of the cooling schedule
+     * @param delta         change of the value by the move, negative
      *
-     * @return computed value
+     * @return probability to accept the move
      */
-    private double denominator(int iter) {
-        switch (DENOM) {
-            case 0: return Math.pow((double) iter, 2.0);
-            default: return (double) CONSTANT / Math.log(1+iter);
-        }
+    private double bound(double temperature, int delta) {
+        return Math.exp(delta / temperature);
     }
 
     /**
      * Prints the algorithm settings
+     *
+     * @param schedule  cooling schedule of the run
      */
-    public void printSettings() {
+    public void printSettings(CoolingSchedule schedule) {
         Logger.println("\n---------- Simulated Annealing Settings ----------");
-        Logger.println("  Max Iteration = " + MAX_ITERATION);
-        Logger.println("  Denominator = " + denominatorString());
+        if (config.isUseTime())
+            Logger.println("  Max Time = " + config.getMaxTime() + " ms");
+        else
+            Logger.println("  Max Iteration = " + config.getMaxIteration());
+        Logger.println("  Cooling Schedule = " + schedule);
         Logger.println("  Initial Solution = " + initialSolutionString());
         Logger.println("--------------------------------------------------\n");
     }
 
-    /**
-     * Constructs a string for the denominator used for the algorithm
-     *
-     * @param start     value for t_0
-     *
-     * @return representative string
-     */
-    public String denominatorString() {
-        switch (DENOM) {
-            case 0: return "i^2";
-            default: return CONSTANT + " / log(1 + i)";
-        }
-    }
-
     /**
      * Constructs a string for the initial solution strategy used for the algorithm
      *
      * @return representative string
      */
     public String initialSolutionString() {
-        switch (INITIAL) {
-            case 0: return "Take X most cost efficient items";
-            case 1: return "Take X lightest items";
+        switch (config.getInitial()) {
+            case AnnealingConfig.MOST_EFFICIENT: return "Take X most cost efficient items";
+            case AnnealingConfig.LIGHTEST: return "Take X lightest items";
             default: return "Take X random items";
         }
     }
@@ -253,7 +212,7 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
     /**
      * Private class that holds an index and the corresponding item.
      */
-    private class Pair implements Comparable<Pair> {
+    private class Pair {
         // weight, value, index
         public int w, c, index;
 
@@ -262,9 +221,5 @@ public class SimulatedAnnealing implements SolverInterface<Solution> {
             w = weight;
             index = i;
         }
-
-        public int compareTo(Pair other) {
-            return (int) (this.c / this.w - other.c / other.w);
-        }
     }
 }
\ No newline at end of file
@@ -1,13 +1,23 @@
 package simulatedAnnealing;
 
 /**
- * Solution of a integer or binary knapsack problem
+ * Solution of a integer or binary knapsack problem. Binary quantities
+ * are stored in a bitset, an array of integer quantities is only
+ * allocated once a quantity other than 0 or 1 is assigned.
  *
  * @author Stephan Beyer
  */
 public class Solution extends GenericSolution<Integer> {
+	// Bitset of the items with quantity 1
+	private long[] bits;
+	// All quantities, null as long as the solution is binary
+	private int[] quantities;
+	private int solValue;
+	private int solWeight;
+
 	public Solution(Instance instance) {
 		super(instance);
+		bits = new long[(instance.getSize() + 63) >>> 6];
 	}
 
 	/**
@@ -15,6 +25,31 @@ public class Solution extends GenericSolution<Integer> {
 	 */
 	public Solution(Solution solution) {
 		super(solution);
+		bits = solution.bits.clone();
+		quantities = solution.quantities == null ? null : solution.quantities.clone();
+		solValue = solution.solValue;
+		solWeight = solution.solWeight;
+	}
+
+	/**
+	 * Overwrite this solution with another solution of the same instance
+	 * without allocating memory (unless the other solution is not binary).
+	 *
+	 * @param solution The solution to copy
+	 */
+	public void copyFrom(Solution solution) {
+		assert solution.instance == instance : "Solution is for another instance!";
+
+		System.arraycopy(solution.bits, 0, bits, 0, bits.length);
+		if (solution.quantities == null) {
+			quantities = null;
+		} else if (quantities == null) {
+			quantities = solution.quantities.clone();
+		} else {
+			System.arraycopy(solution.quantities, 0, quantities, 0, quantities.length);
+		}
+		solValue = solution.solValue;
+		solWeight = solution.solWeight;
 	}
 
 	/**
@@ -25,24 +60,141 @@ public class Solution extends GenericSolution<Integer> {
 	 */
 	@Override
 	public void set(int item, Integer quantity) {
-		assert sol.size() > item : "Item number " + item + " not found!";
-		assert sol.get(item) != null : "Item " + item + " not initialized in solution.";
-		
-		int extraWeight = (quantity - sol.get(item)) * instance.getWeight(item);
+		set(item, quantity.intValue());
+	}
+
+	/**
+	 * Assign a quantity to an item.
+	 *
+	 * @param item index of the item
+	 * @param quantity quantity to be assigned
+	 */
+	public void set(int item, int quantity) {
+		assert item < instance.getSize() : "Item number " + item + " not found!";
+
+		int itemCountDiff = quantity - get(item);
+		int extraWeight = itemCountDiff * instance.getWeight(item);
 		// If solution would be feasible, change values
 		if (solWeight + extraWeight <= instance.getCapacity()) {
-			solValue += (quantity - sol.get(item)) * instance.getValue(item);
+			solValue += itemCountDiff * instance.getValue(item);
 			solWeight += extraWeight;
-			sol.set(item, quantity);
+			store(item, quantity);
 		}
 	}
 
+	/**
+	 * Change of the value if the quantity of a binary item is flipped
+	 *
+	 * @param item index of the item
+	 */
+	public int getFlipValueDelta(int item) {
+		return isSet(item) ? -instance.getValue(item) : instance.getValue(item);
+	}
+
+	/**
+	 * Change of the weight if the quantity of a binary item is flipped
+	 *
+	 * @param item index of the item
+	 */
+	public int getFlipWeightDelta(int item) {
+		return isSet(item) ? -instance.getWeight(item) : instance.getWeight(item);
+	}
+
+	/**
+	 * Check if flipping the quantity of a binary item keeps the solution feasible
+	 *
+	 * @param item index of the item
+	 */
+	public boolean isFlipFeasible(int item) {
+		return solWeight + getFlipWeightDelta(item) <= instance.getCapacity();
+	}
+
+	/**
+	 * Flip the quantity of a binary item in place, unless the solution
+	 * would become infeasible
+	 *
+	 * @param item index of the item
+	 */
+	public void flip(int item) {
+		assert quantities == null : "Solution is not binary!";
+		if (isFlipFeasible(item)) {
+			solValue += getFlipValueDelta(item);
+			solWeight += getFlipWeightDelta(item);
+			bits[item >>> 6] ^= 1L << item;
+		}
+	}
+
+	/**
+	 * Check if a binary item is packed
+	 */
+	private boolean isSet(int item) {
+		return ((bits[item >>> 6] >>> item) & 1L) != 0;
+	}
+
+	/**
+	 * Stores a quantity without updating value and weight
+	 *
+	 * @param item index of the item
+	 * @param quantity quantity to be stored
+	 */
+	private void store(int item, int quantity) {
+		if (quantities == null && quantity != 0 && quantity != 1) {
+			quantities = getIntegerArray();
+		}
+		if (quantities != null) {
+			quantities[item] = quantity;
+		}
+		if (quantity == 0) {
+			bits[item >>> 6] &= ~(1L << item);
+		} else {
+			bits[item >>> 6] |= 1L << item;
+		}
+	}
+
+	/**
+	 * Get the quantity of an item
+	 *
+	 * @param item The index of the item
+	 */
+	@Override
+	public Integer get(int item) {
+		if (quantities != null) {
+			return quantities[item];
+		}
+		return (int) (bits[item >>> 6] >>> item) & 1;
+	}
+
+	/**
+	 * Get the array (integer) of all quantities
+	 */
+	@Override
+	public int[] getIntegerArray() {
+		if (quantities != null) {
+			return quantities.clone();
+		}
+		int[] array = new int[instance.getSize()];
+		for (int i = 0; i < array.length; ++i) {
+			array[i] = (int) (bits[i >>> 6] >>> i) & 1;
+		}
+		return array;
+	}
+
+	@Override
+	public Integer getValue() {
+		return solValue;
+	}
+
+	@Override
+	public Integer getWeight() {
+		return solWeight;
+	}
+
 	/**
 	 * Check if the solution is feasible.
 	 */
 	@Override
 	public boolean isFeasible() {
-		return getWeight() <= instance.getCapacity();
+		return solWeight <= instance.getCapacity();
 	}
 
 	/**
@@ -50,16 +202,14 @@ public class Solution extends GenericSolution<Integer> {
 	 */
 	@Override
 	public boolean isBinary() {
-		for (int quantity : sol) {
+		if (quantities == null) {
+			return true;
+		}
+		for (int quantity : quantities) {
 			if (quantity != 0 && quantity != 1) {
 				return false;
 			}
 		}
 		return true;
 	}
-
-	@Override
-	protected Integer zero() {
-		return 0;
-	}
 }
@@ -1,6 +1,7 @@
 @echo OFF
 SET filename=%1
 SET iterations=%2
+SET config=%~3
 SET command=java simulatedAnnealing.Main
 
 @echo Compiling Simulated Annealing Package
@@ -9,10 +10,11 @@ javac simulatedAnnealing\*.java
 
 @echo Doing %iterations% iterations for file %filename%
 
-IF EXIST test.txt DEL test.txt
-
-FOR /L %%G IN (1, 1, %iterations%) DO (
-    %command% %filename% >> test.txt
+REM All runs share one JVM, the optional third argument is a configuration in quotes (see README.md)
+IF "%config%"=="" (
+    %command% -r %iterations% %filename% > test.txt
+) ELSE (
+    %command% -r %iterations% -c "%config%" %filename% > test.txt
 )
 
 @echo Done
@@ -7,9 +7,13 @@ package tabusearch;
  */
 public class FractionalSolution extends GenericSolution<Double> {
 	private double epsilon = 1e-6;
+	private double[] quantities;
+	private double solValue;
+	private double solWeight;
 
 	public FractionalSolution(Instance instance) {
 		super(instance);
+		quantities = new double[instance.getSize()];
 	}
 
 	/**
@@ -17,15 +21,45 @@ public class FractionalSolution extends GenericSolution<Double> {
 	 */
 	public FractionalSolution(FractionalSolution solution) {
 		super(solution);
+		quantities = solution.quantities.clone();
+		solValue = solution.solValue;
+		solWeight = solution.solWeight;
+	}
+
+	/**
+	 * Overwrite this solution with another solution of the same instance
+	 *
+	 * @param solution The solution to copy
+	 */
+	public void copyFrom(FractionalSolution solution) {
+		assert solution.instance == instance : "Solution is for another instance!";
+
+		System.arraycopy(solution.quantities, 0, quantities, 0, quantities.length);
+		solValue = solution.solValue;
+		solWeight = solution.solWeight;
 	}
 
 	@Override
 	public void set(int item, Double quantity) {
-		assert sol.size() > item : "Item number " + item + " not found!";
-		assert sol.get(item) != null : "Item " + item + " not initialized in solution.";
+		assert item < quantities.length : "Item number " + item + " not found!";
 		// TODO: insert correct solution of excerise sheet 1 here
 	}
 
+	@Override
+	public Double get(int item) {
+		return quantities[item];
+	}
+
+	@Override
+	public Double getValue() {
+		return solValue;
+	}
+
+	@Override
+	public Double getWeight() {
+		return solWeight;
+	}
+
 	@Override
 	public boolean isFeasible() {
 		return solWeight <= instance.getCapacity();
@@ -33,7 +67,7 @@ public class FractionalSolution extends GenericSolution<Double> {
 
 	@Override
 	public boolean isBinary() {
-		for (double quantity : sol) {
+		for (double quantity : quantities) {
 			if (quantity > epsilon
 			 && quantity < 1 - epsilon) {
 				return false;
@@ -41,9 +75,4 @@ public class FractionalSolution extends GenericSolution<Double> {
 		}
 		return true;
 	}
-
-	@Override
-	protected Double zero() {
-		return 0.0;
-	}
 }
@@ -1,7 +1,5 @@
 package tabusearch;
 
-import java.util.ArrayList;
-
 /**
  * Solution of a generic knapsack problem
  *
@@ -9,28 +7,16 @@ import java.util.ArrayList;
  */
 public abstract class GenericSolution<QuantityType extends Number> {
 	protected Instance instance;
-	protected ArrayList<QuantityType> sol;
-	protected QuantityType solValue;
-	protected QuantityType solWeight;
 
 	public GenericSolution(Instance instance) {
 		this.instance = instance;
-		solValue = zero();
-		solWeight = zero();
-		sol = new ArrayList<QuantityType>();
-		for (int i = 0; i < instance.getSize(); ++i) {
-			sol.add(zero());
-		}
 	}
 
 	/**
-	 * Copy a solution (copy constructor)
+	 * Copy a solution (copy constructor), subclasses copy the quantities
 	 */
 	public GenericSolution(GenericSolution<QuantityType> solution) {
 		this(solution.getInstance());
-		for (int i = 0; i < instance.getSize(); ++i) {
-			set(i, solution.get(i));
-		}
 	}
 
 	/**
@@ -53,17 +39,15 @@ public abstract class GenericSolution<QuantityType extends Number> {
 	 *
 	 * @param item The index of the item
 	 */
-	public QuantityType get(int item) {
-		return sol.get(item);
-	}
+	public abstract QuantityType get(int item);
 
 	/**
 	 * Get the array (integer) of all quantities
 	 */
 	public int[] getIntegerArray() {
-		int[] array = new int[sol.size()];
-		for (int i = 0; i < sol.size(); ++i) {
-			array[i] = (Integer)sol.get(i);
+		int[] array = new int[instance.getSize()];
+		for (int i = 0; i < array.length; ++i) {
+			array[i] = get(i).intValue();
 		}
 		return array;
 	}
@@ -71,16 +55,12 @@ public abstract class GenericSolution<QuantityType extends Number> {
 	/**
 	 * Get the solution value
 	 */
-	public QuantityType getValue() {
-		return solValue;
-	}
+	public abstract QuantityType getValue();
 
 	/**
 	 * Get the solution weight
 	 */
-	public QuantityType getWeight() {
-		return solWeight;
-	}
+	public abstract QuantityType getWeight();
 
 	/**
 	 * Check if the solution is feasible
@@ -92,17 +72,15 @@ public abstract class GenericSolution<QuantityType extends Number> {
 	 */
 	public abstract boolean isBinary();
 
-	/**
-	 * Return zero for the given quantity type
-	 */
-	protected abstract QuantityType zero();
-
 	@Override
 	public String toString() {
-		String str = "";
-		for (QuantityType quantity : sol) {
-			str += quantity + " ";
+		StringBuilder str = new StringBuilder();
+		for (int i = 0; i < instance.getSize(); ++i) {
+			if (i > 0) {
+				str.append(' ');
+			}
+			str.append(get(i));
 		}
-		return str.trim();
+		return str.toString();
 	}
 }
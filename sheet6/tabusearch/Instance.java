@@ -22,6 +22,16 @@ public class Instance {
 	 */
 	private int W;
 
+	/**
+	 * Items by decreasing efficiency, computed on first use
+	 */
+	private volatile int[] order;
+
+	/**
+	 * Prefix sums of values and weights in efficiency order
+	 */
+	private long[] valueSums, weightSums;
+
 	/**
 	 * Constructs an instance for given item number
 	 *
@@ -68,6 +78,7 @@ public class Instance {
 	 */
 	public void setValue(int item, int value) {
 		c[item] = value;
+		order = null;
 	}
 
 	/**
@@ -94,6 +105,7 @@ public class Instance {
 	 */
 	public void setWeight(int item, int weight) {
 		w[item] = weight;
+		order = null;
 	}
 
 	/**
@@ -118,4 +130,103 @@ public class Instance {
 	public int getSize() {
 		return c.length;
 	}
+
+	/**
+	 * Get efficiency (value per weight) of an item. Items without
+	 * weight are the most efficient ones.
+	 *
+	 * @param item Item index
+	 */
+	public double getRatio(int item) {
+		int weight = getWeight(item);
+		if (weight == 0) {
+			return getValue(item) > 0 ? Double.POSITIVE_INFINITY : 0.0;
+		}
+		return (double) getValue(item) / weight;
+	}
+
+	/**
+	 * Get all items ordered by decreasing efficiency, items with the same
+	 * efficiency by index. The order is computed once and shared by all
+	 * solvers, so the returned array must not be modified.
+	 */
+	public int[] getEfficiencyOrder() {
+		int[] items = order;
+		if (items == null) {
+			items = computeOrder();
+		}
+		return items;
+	}
+
+	/**
+	 * Get prefix sums of the values in efficiency order, i.e. the
+	 * entry k is the total value of the k most efficient items.
+	 * The returned array must not be modified.
+	 */
+	public long[] getValueSums() {
+		getEfficiencyOrder();
+		return valueSums;
+	}
+
+	/**
+	 * Get prefix sums of the weights in efficiency order, i.e. the
+	 * entry k is the total weight of the k most efficient items.
+	 * The returned array must not be modified.
+	 */
+	public long[] getWeightSums() {
+		getEfficiencyOrder();
+		return weightSums;
+	}
+
+	/**
+	 * Computes the efficiency order and prefix sums unless
+	 * another thread already did
+	 */
+	private synchronized int[] computeOrder() {
+		if (order != null) {
+			return order;
+		}
+
+		int n = getSize();
+		int[] items = new int[n];
+		double[] keys = new double[n];
+		for (int i = 0; i < n; i++) {
+			items[i] = i;
+			keys[i] = getRatio(i);
+		}
+		mergeSort(items, keys, new int[n], new double[n], 0, n);
+
+		valueSums = new long[n + 1];
+		weightSums = new long[n + 1];
+		for (int i = 0; i < n; i++) {
+			valueSums[i + 1] = valueSums[i] + getValue(items[i]);
+			weightSums[i + 1] = weightSums[i] + getWeight(items[i]);
+		}
+
+		// Publish the order last, the sums are visible once it is
+		order = items;
+		return items;
+	}
+
+	private static void mergeSort(int[] items, double[] keys, int[] tmpItems, double[] tmpKeys, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(items, keys, tmpItems, tmpKeys, from, mid);
+		mergeSort(items, keys, tmpItems, tmpKeys, mid, to);
+
+		int a = from, b = mid;
+		for (int i = from; i < to; i++) {
+			if (b == to || (a < mid && (keys[a] > keys[b] || (keys[a] == keys[b] && items[a] < items[b])))) {
+				tmpItems[i] = items[a];
+				tmpKeys[i] = keys[a++];
+			} else {
+				tmpItems[i] = items[b];
+				tmpKeys[i] = keys[b++];
+			}
+		}
+		System.arraycopy(tmpItems, from, items, from, to - from);
+		System.arraycopy(tmpKeys, from, keys, from, to - from);
+	}
 }
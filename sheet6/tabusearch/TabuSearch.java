@@ -2,8 +2,6 @@ package tabusearch;
 
 import java.util.Random;
 import java.util.Vector;
-import java.util.ArrayList;
-import java.util.Comparator;
 
 
 public class TabuSearch implements SolverInterface<Solution> {
@@ -97,7 +95,7 @@ public class TabuSearch implements SolverInterface<Solution> {
                 if ((double) work.getValue() / best.getValue() > 0.01) {
                     last = 0;
                 }
-                best = new Solution(work);
+                best.copyFrom(work);
             }
             last++;
         }
@@ -252,47 +250,17 @@ public class TabuSearch implements SolverInterface<Solution> {
      */
     private Solution sortByCheapest(Instance instance) {
         Solution solution = new Solution(instance);
-        ArrayList<Pair> order = new ArrayList<Pair>();
-
-        for (int i = 0; i < instance.getSize(); i++) {
-            order.add(i, new Pair(i, (double) instance.getValue(i), (double) instance.getWeight(i)));
-        }
-
-        order.sort(new Comparator<Pair>() {
-            @Override
-            public int compare(Pair o1, Pair o2) {
-                return o1.cw > o2.cw ? -1 : (o1.cw < o2.cw ? 1 : 0);
-            }
-        });
+        int[] order = instance.getEfficiencyOrder();
 
         int index;
         int capacity = instance.getCapacity();
 
-        for (int i = 0; i < order.size(); i++) {
-            index = order.get(i).index;
+        for (int i = 0; i < order.length; i++) {
+            index = order[i];
             if (solution.getWeight() + instance.getWeight(index) <= capacity)
                 solution.set(index, 1);
         }
 
         return solution;
     }
-
-    /**
-     * Private class that holds an index and the computed
-     * value-to-weight ratio of that item.
-     *
-     */
-    private class Pair implements Comparable<Pair> {
-        public double cw;
-        public int index;
-
-        public Pair(int i, double value, double weight) {
-            cw = value / weight;
-            index = i;
-        }
-
-        public int compareTo(Pair other) {
-            return (int) (this.cw - other.cw);
-        }
-    }
-}
\ No newline at end of file
+}